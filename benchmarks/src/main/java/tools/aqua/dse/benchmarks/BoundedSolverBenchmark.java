@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import gov.nasa.jpf.constraints.api.ConstraintSolver;
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.aqua.dse.bounds.BoundedSolver;
+import tools.aqua.dse.bounds.BoundedSolverContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One query through {@link BoundedSolverContext} (solveWithBound) on top of
+ * {@link StubSolver}. With sat=false, all bound levels are tried before
+ * the unbounded query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoundedSolverBenchmark {
+
+    @Param({"16", "128"})
+    public int constraints;
+
+    @Param({"1", "4"})
+    public int iterations;
+
+    @Param({"true", "false"})
+    public boolean sat;
+
+    private BoundedSolverContext ctx;
+
+    private List<Expression<Boolean>> query;
+
+    @Setup
+    public void setup() {
+        BoundedSolver solver = new BoundedSolver(new StubSolver(sat), 200, iterations, BoundedSolver.BoundType.linear);
+        ctx = solver.createContext();
+        Random random = new Random(42);
+        query = new ArrayList<>();
+        for (int i = 0; i < constraints; i++) {
+            Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_" + random.nextInt(constraints));
+            Constant<Integer> c = Constant.create(BuiltinTypes.SINT32, random.nextInt(1000));
+            query.add(new NumericBooleanExpression(x, NumericComparator.LT, c));
+        }
+    }
+
+    @Benchmark
+    public ConstraintSolver.Result solve() {
+        ctx.push();
+        ctx.add(query);
+        ConstraintSolver.Result result = ctx.solve(new Valuation());
+        ctx.pop();
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.aqua.dse.Config;
+import tools.aqua.dse.paths.PathResult;
+import tools.aqua.dse.trace.Decision;
+import tools.aqua.dse.tree.ConstraintsTree;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exhaustive exploration of a program with depth nested branches on
+ * x_i > 0 (2^depth paths) through decision/finish/findNext, using
+ * {@link StubSolver}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstraintsTreeBenchmark {
+
+    @Param({"6", "10"})
+    public int depth;
+
+    @Param({"dfs", "bfs"})
+    public String strategy;
+
+    private Config config;
+
+    private Variable<Integer>[] vars;
+
+    private Decision[][] decisions;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Properties props = new Properties();
+        props.setProperty("dse.executor", "none");
+        props.setProperty("dse.dp", "stub");
+        props.setProperty("dse.explore", strategy);
+        config = Config.fromProperties(props);
+
+        Constant<Integer> zero = Constant.create(BuiltinTypes.SINT32, 0);
+        vars = new Variable[depth];
+        decisions = new Decision[depth][2];
+        for (int i = 0; i < depth; i++) {
+            vars[i] = Variable.create(BuiltinTypes.SINT32, "__int_" + i);
+            Expression<Boolean> le = new NumericBooleanExpression(vars[i], NumericComparator.LE, zero);
+            Expression<Boolean> gt = new NumericBooleanExpression(vars[i], NumericComparator.GT, zero);
+            decisions[i][0] = new Decision(le, 2, 0);
+            decisions[i][1] = new Decision(gt, 2, 1);
+        }
+    }
+
+    @Benchmark
+    public int explore() {
+        ConstraintsTree tree = new ConstraintsTree(config);
+        Valuation val = new Valuation();
+        int paths = 0;
+        while (val != null) {
+            for (int i = 0; i < depth; i++) {
+                Integer x = val.getValue(vars[i]);
+                tree.decision(decisions[i][(x != null && x > 0) ? 1 : 0]);
+            }
+            tree.finish(PathResult.ok(val));
+            paths++;
+            val = tree.findNext();
+        }
+        return paths;
+    }
+}
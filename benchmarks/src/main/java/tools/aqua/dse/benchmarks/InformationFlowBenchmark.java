@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.aqua.dse.Config;
+import tools.aqua.dse.iflow.InformationFlowAnalysis;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taint checks on a random flow graph: a chain over all nodes plus two
+ * random edges per node, with a check on every tenth node. Measures the
+ * evaluation of all checks; runChecks() skips checks that were reported
+ * before and prints verdicts, so it cannot be repeated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InformationFlowBenchmark {
+
+    @Param({"100", "1000"})
+    public int nodes;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private InformationFlowAnalysis analysis;
+
+    @Setup
+    public void setup() {
+        Properties props = new Properties();
+        props.setProperty("dse.executor", "none");
+        props.setProperty("dse.dp", "stub");
+        props.setProperty("iflow.threads", Integer.toString(threads));
+        analysis = new InformationFlowAnalysis(Config.fromProperties(props));
+
+        Random random = new Random(42);
+        for (int i = 0; i < nodes; i++) {
+            analysis.addFlow("name=v" + (i + 1) + " tainted by v" + i);
+            analysis.addFlow("name=v" + random.nextInt(nodes) + " tainted by v" + random.nextInt(nodes)
+                    + ", v" + random.nextInt(nodes));
+            if (i % 10 == 0) {
+                analysis.addFlow("checkFor=v" + i + " on value tainted by v" + random.nextInt(nodes));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> evaluateChecks() {
+        return analysis.evaluateChecks();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.aqua.dse.objects.Objects;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Declaration of the class hierarchy (extends/initializes) for a chain of
+ * classes with two constructors each, into a {@link StubSolverContext}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectsBenchmark {
+
+    @Param({"10", "50"})
+    public int classes;
+
+    private Objects objects;
+
+    private StubSolver solver;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < classes; i++) {
+            sb.append("class C").append(i);
+            if (i > 0) {
+                sb.append(" extends C").append(i - 1);
+            }
+            sb.append(" { C").append(i).append("(), C").append(i).append("(int) } ");
+        }
+        objects = new Objects(sb.toString());
+        solver = new StubSolver(true);
+    }
+
+    @Benchmark
+    public StubSolverContext initObjectsStructure() {
+        StubSolverContext ctx = solver.createContext();
+        objects.initObjectsStructure(ctx);
+        return ctx;
+    }
+}
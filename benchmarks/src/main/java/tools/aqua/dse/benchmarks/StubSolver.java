@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import gov.nasa.jpf.constraints.api.ConstraintSolver;
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.LogicalOperator;
+import gov.nasa.jpf.constraints.expressions.Negation;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Solver stand-in for benchmarks, so that solving time does not hide the
+ * cost of DSE itself. Conjunctions of (possibly negated) comparisons of int
+ * variables with constants are satisfied literal by literal; the first
+ * literal on a variable wins. Everything else is ignored. With sat=false,
+ * every query is unsatisfiable.
+ */
+public class StubSolver extends ConstraintSolver {
+
+    private final boolean sat;
+
+    public StubSolver(boolean sat) {
+        this.sat = sat;
+    }
+
+    @Override
+    public Result solve(Expression<Boolean> f, Valuation result) {
+        if (!sat) {
+            return Result.UNSAT;
+        }
+        if (result != null) {
+            assign(f, true, result, new HashSet<String>());
+        }
+        return Result.SAT;
+    }
+
+    @Override
+    public StubSolverContext createContext() {
+        return new StubSolverContext(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assign(Expression<?> e, boolean value, Valuation val, Set<String> assigned) {
+        if (e instanceof Negation) {
+            assign(((Negation) e).getNegated(), !value, val, assigned);
+        } else if (e instanceof PropositionalCompound) {
+            PropositionalCompound pc = (PropositionalCompound) e;
+            if (value && pc.getOperator() == LogicalOperator.AND) {
+                assign(pc.getLeft(), true, val, assigned);
+                assign(pc.getRight(), true, val, assigned);
+            }
+        } else if (e instanceof NumericBooleanExpression) {
+            NumericBooleanExpression nb = (NumericBooleanExpression) e;
+            if (nb.getLeft() instanceof Variable && nb.getRight() instanceof Constant
+                    && nb.getLeft().getType().equals(BuiltinTypes.SINT32)) {
+                Variable<Integer> v = (Variable<Integer>) nb.getLeft();
+                if (assigned.add(v.getName())) {
+                    int c = ((Number) ((Constant<?>) nb.getRight()).getValue()).intValue();
+                    val.setValue(v, satisfying(value ? nb.getComparator() : negate(nb.getComparator()), c));
+                }
+            }
+        }
+    }
+
+    private static int satisfying(NumericComparator cmp, int c) {
+        switch (cmp) {
+            case LT: return c - 1;
+            case GT:
+            case NE: return c + 1;
+            default: return c;
+        }
+    }
+
+    private static NumericComparator negate(NumericComparator cmp) {
+        switch (cmp) {
+            case EQ: return NumericComparator.NE;
+            case NE: return NumericComparator.EQ;
+            case LT: return NumericComparator.GE;
+            case LE: return NumericComparator.GT;
+            case GT: return NumericComparator.LE;
+            default: return NumericComparator.LT;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import gov.nasa.jpf.constraints.api.ConstraintSolver;
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.SolverContext;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.util.ExpressionUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+public class StubSolverContext extends SolverContext {
+
+    private final StubSolver solver;
+
+    private final Deque<List<Expression<Boolean>>> stack = new ArrayDeque<>();
+
+    StubSolverContext(StubSolver solver) {
+        this.solver = solver;
+        stack.push(new ArrayList<Expression<Boolean>>());
+    }
+
+    @Override
+    public void push() {
+        stack.push(new ArrayList<Expression<Boolean>>());
+    }
+
+    @Override
+    public void pop(int n) {
+        for (int i = 0; i < n; i++) {
+            stack.pop();
+        }
+    }
+
+    @Override
+    public ConstraintSolver.Result solve(Valuation val) {
+        List<Expression<Boolean>> all = new ArrayList<>();
+        for (List<Expression<Boolean>> frame : stack) {
+            all.addAll(frame);
+        }
+        return solver.solve(ExpressionUtil.and(all), val);
+    }
+
+    @Override
+    public void add(List<Expression<Boolean>> expressions) {
+        stack.peek().addAll(expressions);
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
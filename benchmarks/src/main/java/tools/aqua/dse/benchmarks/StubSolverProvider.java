@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import gov.nasa.jpf.constraints.api.ConstraintSolver;
+import gov.nasa.jpf.constraints.solvers.ConstraintSolverProvider;
+
+import java.util.Properties;
+
+/**
+ * Makes {@link StubSolver} available as dse.dp=stub (stub.sat=false for
+ * a solver that only answers unsat).
+ */
+public class StubSolverProvider implements ConstraintSolverProvider {
+
+    @Override
+    public String[] getNames() {
+        return new String[]{"stub"};
+    }
+
+    @Override
+    public ConstraintSolver createSolver(Properties config) {
+        return new StubSolver(Boolean.parseBoolean(config.getProperty("stub.sat", "true")));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.benchmarks;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.NumericOperator;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.aqua.dse.iflow.FlowDictionary;
+import tools.aqua.dse.trace.BinaryTraceWriter;
+import tools.aqua.dse.trace.Trace;
+import tools.aqua.dse.trace.TraceParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of synthetic traces with depth decisions of the form
+ * (bvslt (bvadd x c) y) over a few 32 bit variables, as text and in the
+ * binary trace format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraceParserBenchmark {
+
+    private static final int VARIABLES = 8;
+
+    @Param({"10", "100", "1000"})
+    public int depth;
+
+    private List<String> text;
+
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(42);
+        List<Variable<Integer>> vars = new ArrayList<>();
+        text = new ArrayList<>();
+        for (int i = 0; i < VARIABLES; i++) {
+            vars.add(Variable.create(BuiltinTypes.SINT32, "__int_" + i));
+            text.add("[DECLARE] (declare-fun __int_" + i + " () (_ BitVec 32))");
+        }
+
+        BinaryTraceWriter writer = new BinaryTraceWriter();
+        for (int i = 0; i < depth; i++) {
+            int x = random.nextInt(VARIABLES);
+            int y = random.nextInt(VARIABLES);
+            int c = random.nextInt(1000);
+            int branch = random.nextInt(2);
+            text.add(String.format("[DECISION] (assert (bvslt (bvadd __int_%d #x%08x) __int_%d)) // branchCount=2, branchId=%d",
+                    x, c, y, branch));
+            Expression<Integer> sum = new NumericCompound<>(vars.get(x), NumericOperator.PLUS,
+                    Constant.create(BuiltinTypes.SINT32, c));
+            writer.decision(new NumericBooleanExpression(sum, NumericComparator.LT, vars.get(y)), 2, branch);
+        }
+        text.add("[ENDOFTRACE]");
+        binary = writer.finish();
+    }
+
+    @Benchmark
+    public Trace parseText() throws Exception {
+        return TraceParser.parseTrace(text, new Valuation(), new FlowDictionary());
+    }
+
+    @Benchmark
+    public Trace parseBinary() throws Exception {
+        return TraceParser.parseTrace(binary, new Valuation(), new FlowDictionary());
+    }
+}
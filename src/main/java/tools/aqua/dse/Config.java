@@ -22,6 +22,7 @@ import gov.nasa.jpf.constraints.solvers.ConstraintSolverFactory;
 import gov.nasa.jpf.constraints.solvers.SolvingService;
 import lombok.Getter;
 import org.apache.commons.cli.CommandLine;
+import org.apache.logging.log4j.Level;
 import tools.aqua.dse.bounds.BoundedSolverProvider;
 import tools.aqua.dse.objects.Objects;
 
@@ -77,6 +78,23 @@ public class Config {
     @Getter
     private String executorArgs;
 
+    @Getter
+    private int executorBatch = 1;
+
+    /**
+     * -- GETTER --
+     *  transport for valuations and traces: args or mmap
+     */
+    @Getter
+    private String executorTransport = "args";
+
+    /**
+     * -- GETTER --
+     *  pass expected branch ids to the executor
+     */
+    @Getter
+    private boolean executorPrefix = false;
+
     @Getter
     private boolean b64encodeExecutorValue = false;
 
@@ -92,15 +110,77 @@ public class Config {
     @Getter
     private boolean witness = false;
 
+    @Getter
+    private boolean validateModels = false;
+
+    @Getter
+    private boolean minimizeModels = false;
+
+    @Getter
+    private boolean simulate = true;
+
+    @Getter
+    private boolean fuzz = false;
+
+    @Getter
+    private int fuzzCandidates = 16;
+
     @Getter
     private boolean coverageReport = false;
 
+    /**
+     * -- GETTER --
+     *  write tests while exploring instead of after exploration
+     */
+    @Getter
+    private boolean coverageReportStreaming = false;
+
     @Getter
     private Random random = null;
 
     @Getter
     private double fraction = 1.0;
 
+    @Getter
+    private int flowSamples = 0;
+
+    @Getter
+    private int flowThreads = 1;
+
+    @Getter
+    private boolean spill = false;
+
+    @Getter
+    private String spillDirectory = null;
+
+    /**
+     * -- GETTER --
+     *  file for per-phase timings (json) or null
+     */
+    @Getter
+    private String perfJson = null;
+
+    /**
+     * -- GETTER --
+     *  port of the local metrics endpoint (0: disabled)
+     */
+    @Getter
+    private int metricsPort = 0;
+
+    /**
+     * -- GETTER --
+     *  level for the tools.aqua.dse loggers or null (log4j2.xml)
+     */
+    @Getter
+    private String logLevel = null;
+
+    /**
+     * -- GETTER --
+     *  file receiving one json line per finished path or null
+     */
+    @Getter
+    private String resultsJsonl = null;
+
     @Getter
     private ClassLoader sourceLoader = Config.class.getClassLoader();
 
@@ -168,6 +248,18 @@ public class Config {
         else {
             throw new IllegalStateException("no executor command specified");
         }
+        if (props.containsKey("dse.executor.batch")) {
+            this.executorBatch = Integer.parseInt(props.getProperty("dse.executor.batch"));
+        }
+        if (props.containsKey("dse.executor.transport")) {
+            this.executorTransport = props.getProperty("dse.executor.transport").trim().toLowerCase();
+            if (!executorTransport.equals("args") && !executorTransport.equals("mmap")) {
+                throw new IllegalArgumentException("unknown executor transport: " + executorTransport);
+            }
+        }
+        if (props.containsKey("dse.executor.prefix")) {
+            this.executorPrefix = Boolean.parseBoolean(props.getProperty("dse.executor.prefix"));
+        }
         if (props.containsKey("dse.b64encode")) {
             this.b64encodeExecutorValue = Boolean.parseBoolean( props.getProperty("dse.b64encode") );
         }
@@ -191,6 +283,23 @@ public class Config {
             this.solver = ConstraintSolverFactory.createSolver(solverName, props);
         }
 
+        if (props.containsKey("dse.model.validate")) {
+            this.validateModels = Boolean.parseBoolean(props.getProperty("dse.model.validate"));
+        }
+        if (props.containsKey("dse.model.minimize")) {
+            this.minimizeModels = Boolean.parseBoolean(props.getProperty("dse.model.minimize"));
+        }
+
+        if (props.containsKey("dse.simulate")) {
+            this.simulate = Boolean.parseBoolean(props.getProperty("dse.simulate"));
+        }
+        if (props.containsKey("dse.fuzz")) {
+            this.fuzz = Boolean.parseBoolean(props.getProperty("dse.fuzz"));
+        }
+        if (props.containsKey("dse.fuzz.candidates")) {
+            this.fuzzCandidates = Integer.parseInt(props.getProperty("dse.fuzz.candidates"));
+        }
+
         if (props.containsKey("dse.witness")) {
             this.witness = Boolean.parseBoolean(props.getProperty("dse.witness"));
         }
@@ -213,10 +322,41 @@ public class Config {
         if (props.containsKey("dse.coveragereport")) {
             this.coverageReport = Boolean.parseBoolean(props.getProperty("dse.coveragereport"));
         }
+        if (props.containsKey("dse.coveragereport.streaming")) {
+            this.coverageReportStreaming = Boolean.parseBoolean(props.getProperty("dse.coveragereport.streaming"));
+        }
+
+        if (props.containsKey("dse.spill")) {
+            this.spill = Boolean.parseBoolean(props.getProperty("dse.spill"));
+        }
+        if (props.containsKey("dse.spill.dir")) {
+            this.spillDirectory = props.getProperty("dse.spill.dir");
+        }
+        if (props.containsKey("dse.perf.json")) {
+            this.perfJson = props.getProperty("dse.perf.json");
+        }
+        if (props.containsKey("dse.metrics.port")) {
+            this.metricsPort = Integer.parseInt(props.getProperty("dse.metrics.port"));
+        }
+        if (props.containsKey("dse.results.jsonl")) {
+            this.resultsJsonl = props.getProperty("dse.results.jsonl");
+        }
+        if (props.containsKey("dse.log.level")) {
+            this.logLevel = props.getProperty("dse.log.level").trim().toUpperCase();
+            if (Level.getLevel(logLevel) == null) {
+                throw new IllegalArgumentException("unknown log level: " + logLevel);
+            }
+        }
 
         if (props.containsKey("iflow.fraction")) {
             this.fraction = Double.parseDouble(props.getProperty("iflow.fraction"));
         }
+        if (props.containsKey("iflow.samples")) {
+            this.flowSamples = Integer.parseInt(props.getProperty("iflow.samples"));
+        }
+        if (props.containsKey("iflow.threads")) {
+            this.flowThreads = Integer.parseInt(props.getProperty("iflow.threads"));
+        }
 
         if (props.containsKey("static.info")) {
             String filename = props.getProperty("static.info");
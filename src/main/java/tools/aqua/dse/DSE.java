@@ -16,11 +16,23 @@
 package tools.aqua.dse;
 
 import gov.nasa.jpf.constraints.api.Valuation;
+import lombok.extern.slf4j.Slf4j;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STGroup;
 import org.stringtemplate.v4.STRawGroupDir;
+import tools.aqua.dse.iflow.FlowDictionary;
+import tools.aqua.dse.iflow.FlowSampler;
 import tools.aqua.dse.iflow.InformationFlowAnalysis;
+import tools.aqua.dse.paths.JsonlResultSink;
 import tools.aqua.dse.paths.PathResult;
+import tools.aqua.dse.perf.MetricsServer;
+import tools.aqua.dse.perf.PerfStats;
+import tools.aqua.dse.spill.HeapRecordLog;
+import tools.aqua.dse.spill.MappedRecordLog;
+import tools.aqua.dse.spill.RecordCodec;
+import tools.aqua.dse.spill.RecordLog;
+import tools.aqua.dse.spill.ValuationCodec;
+import tools.aqua.dse.testgeneration.StreamingTestGenerator;
 import tools.aqua.dse.testgeneration.TestGenerator;
 import tools.aqua.dse.testgeneration.TestGeneratorImpl;
 import tools.aqua.dse.trace.Trace;
@@ -33,6 +45,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 
+@Slf4j
 public class DSE {
 
     private final Config config;
@@ -45,59 +58,93 @@ public class DSE {
 
     public void executeAnalysis() {
         Explorer explorer = new Explorer(config);
-        Executor executor = new Executor(config);
+        FlowDictionary dictionary = new FlowDictionary();
+        Executor executor = new Executor(config, dictionary);
 
-        List<List<String>> flows = new LinkedList<>();
+        InformationFlowAnalysis ia = new InformationFlowAnalysis(config, dictionary);
+        FlowSampler sampler = new FlowSampler(config, ia);
 
-        final List<Valuation> valuations = new ArrayList<>();
+        final MetricsServer metrics = startMetrics();
+        final JsonlResultSink results = openResultSink();
+        explorer.setResultSink(results);
+        final RecordLog<Valuation> valuations = newRecordLog(new ValuationCodec());
+        final StreamingTestGenerator streamingTests = startStreamingTests();
         while (explorer.hasNextValuation()) {
-            Valuation val = explorer.getNextValuation();
-            valuations.add(val);
-            Trace trace = executor.execute(val);
-            if (trace != null) {
-                trace.print();
-                flows.add(new LinkedList<>(trace.getFlows()));
-            } else {
-                System.out.println("== no trace obtained.");
+            List<Valuation> batch = explorer.getNextValuations();
+            for (Valuation val : batch) {
+                if (streamingTests != null) {
+                    streamingTests.addTest(val);
+                } else {
+                    valuations.append(val);
+                }
+            }
+            List<Trace> traces = executor.execute(batch, explorer.getNextPrefixes());
+            for (Trace trace : traces) {
+                if (trace != null) {
+                    trace.print();
+                    if (sampler.offer(trace.getFlows())) {
+                        // report taint violations as early as possible, s.t.
+                        // exploration can terminate on them
+                        trace.getTraceState().getTaintViolations().addAll(ia.checkNewViolations());
+                    }
+                } else {
+                    log.debug("== no trace obtained.");
+                }
+            }
+            explorer.addTraces(traces);
+            if (metrics != null) {
+                metrics.update(explorer.getAnalysis());
             }
-            explorer.addTrace(trace);
 
             // check if we should save a witness
-            checkAndSaveWitness(trace);
+            for (Trace trace : traces) {
+                checkAndSaveWitness(trace);
+            }
         }
+        executor.close();
 
+        if (metrics != null) {
+            metrics.flush(explorer.getAnalysis());
+        }
         System.out.printf("Config.isCoverageReport: %s", config.isCoverageReport());
 
-        if (config.isCoverageReport()) {
+        if (streamingTests != null) {
+            streamingTests.finishTestClass();
+        } else if (config.isCoverageReport()) {
             final TestGenerator testGenerator = new TestGeneratorImpl(config);
             testGenerator.generateTestsBasedOnValuations(valuations);
         }
-        System.out.println(explorer.getAnalysis());
-
-        InformationFlowAnalysis ia = new InformationFlowAnalysis(config);
-
-        int slotCount = (int) ((double) flows.size() * config.getFraction());
-        System.out.println("Flows recorded for " + flows.size() + " paths. " +
-                "Using " + slotCount + " (" + config.getFraction() +
-                ") paths for information flow analysis." );
-
-        Random rand = config.getRandom();
-
-        Set<Integer> slots = new TreeSet<>();
-        while (slots.size() < slotCount) {
-            slots.add(rand.nextInt(flows.size()));
+        valuations.close();
+        if (results != null) {
+            try {
+                results.close();
+            } catch (IOException e) {
+                System.err.println("could not write " + config.getResultsJsonl() + ": " + e.getMessage());
+            }
+        } else {
+            System.out.println(explorer.getAnalysis());
         }
-
-        for (Integer idx : slots) {
-            List<String> fList = flows.get(idx);
-            for (String f : fList) {
-                ia.addFlow(f);
+        PerfStats.print(System.out);
+        if (config.getPerfJson() != null) {
+            try {
+                PerfStats.writeJson(Paths.get(config.getPerfJson()));
+            } catch (IOException e) {
+                System.err.println("could not write " + config.getPerfJson() + ": " + e.getMessage());
             }
         }
+
+        sampler.flush();
+        System.out.println("Flows recorded for " + sampler.getSeen() + " paths. " +
+                "Using " + sampler.getSampled() + " (" + sampler +
+                ") paths for information flow analysis." );
+
         //ia.listFlows();
         ia.runChecks();
 
         System.out.println("[END OF OUTPUT]");
+        if (metrics != null) {
+            metrics.stop();
+        }
         System.exit(0);
     }
 
@@ -106,6 +153,49 @@ public class DSE {
      *
      */
 
+    private StreamingTestGenerator startStreamingTests() {
+        if (!config.isCoverageReport() || !config.isCoverageReportStreaming()) {
+            return null;
+        }
+        StreamingTestGenerator generator = new TestGeneratorImpl(config);
+        generator.beginTestClass();
+        return generator;
+    }
+
+    private JsonlResultSink openResultSink() {
+        if (config.getResultsJsonl() == null) {
+            return null;
+        }
+        try {
+            return new JsonlResultSink(Paths.get(config.getResultsJsonl()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MetricsServer startMetrics() {
+        if (config.getMetricsPort() <= 0) {
+            return null;
+        }
+        try {
+            MetricsServer metrics = new MetricsServer(config.getMetricsPort());
+            metrics.start();
+            System.out.println("Metrics: http://127.0.0.1:" + metrics.getPort() + "/metrics");
+            return metrics;
+        } catch (IOException e) {
+            System.err.println("could not start metrics endpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> RecordLog<T> newRecordLog(RecordCodec<T> codec) {
+        if (!config.isSpill()) {
+            return new HeapRecordLog<>();
+        }
+        String dir = config.getSpillDirectory();
+        return new MappedRecordLog<>(codec, (dir != null) ? Paths.get(dir) : null);
+    }
+
     private void checkAndSaveWitness(Trace trace) {
         if (!config.isWitness() || savedWitness || trace == null ||
                 !(trace.getTraceState() instanceof PathResult.ErrorResult) ||
@@ -70,6 +70,9 @@ public class DSEArguments {
         System.out.println();
         printDSEOptionHelp("dse.executor", "executor command (e.g. java)");
         printDSEOptionHelp("dse.executor.args", "executor args (e.g. -cp ... Main)");
+        printDSEOptionHelp("dse.executor.batch", "no. of valuations passed to one executor process (default: 1)");
+        printDSEOptionHelp("dse.executor.transport", "pass valuations and traces via: args (default) / mmap");
+        printDSEOptionHelp("dse.executor.prefix", "pass expected branch ids to executor: true / false (default)");
         printDSEOptionHelp("dse.b64encode", "base64-encode concolic values passed to executor: true / false (default)");
         printDSEOptionHelp("dse.explore", "one of: inorder, bfs, dfs (default)");
         printDSEOptionHelp("dse.terminate.on", "| separated list of: assertion, error, bug, taint, completion (default)");
@@ -79,10 +82,29 @@ public class DSEArguments {
         printDSEOptionHelp("dse.bounds.step", "step width (increase of bounds) when using bounds iteratively");
         printDSEOptionHelp("dse.bounds.iter", "no. of bounded solving attempts before dropping bounds");
         printDSEOptionHelp("dse.bounds.type", "fibonacci: uses fibonacci seq. from index 2 (1, 2, 3, 5, ...) as steps");
+        printDSEOptionHelp("dse.bounds.adaptive", "start bounded solving at the level that last succeeded: true / false (default)");
+        printDSEOptionHelp("dse.bounds.parallel", "solve all bound levels concurrently: true / false (default)");
+        printDSEOptionHelp("dse.bounds.parallel.timeout", "timeout in ms of concurrent attempts, passed as <dse.dp>.timeout (default: 10000, 0: none)");
+        printDSEOptionHelp("dse.bounds.<type>", "step width for one type (byte, short, char, int, long, string), default: dse.bounds.step; multiplies the fibonacci steps");
+        printDSEOptionHelp("dse.bounds.types", ", separated list of bounded types: byte, short, char, int, long, float, double, string (default: int,string,double)");
+        printDSEOptionHelp("dse.model.validate", "check models against the path constraint before executing: true / false (default)");
+        printDSEOptionHelp("dse.model.minimize", "keep values of the parent execution for unconstrained variables: true / false (default)");
+        printDSEOptionHelp("dse.simulate", "predict divergence by simulating models on the tree: true (default) / false");
+        printDSEOptionHelp("dse.fuzz", "try mutated valuations before solving: true / false (default)");
+        printDSEOptionHelp("dse.fuzz.candidates", "no. of mutated valuations to simulate per path (default: 16)");
         printDSEOptionHelp("dse.witness", "save witness file if possible: true / false (default)");
         printDSEOptionHelp("dse.sources", "path to folder with sources");
         printDSEOptionHelp("dse.coveragereport", "generate coverage report: true / false (default)");
+        printDSEOptionHelp("dse.coveragereport.streaming", "write tests while exploring: true / false (default)");
+        printDSEOptionHelp("dse.spill", "spill collected valuations to memory-mapped files: true / false (default)");
+        printDSEOptionHelp("dse.spill.dir", "directory for spill files (default: system temp directory)");
+        printDSEOptionHelp("dse.perf.json", "write per-phase timings to this file (json)");
+        printDSEOptionHelp("dse.results.jsonl", "write one json line per finished path to this file (replaces the tree dump)");
+        printDSEOptionHelp("dse.log.level", "level of dse log output: error, warn, info (default), debug (prints traces and executor commands)");
+        printDSEOptionHelp("dse.metrics.port", "serve live metrics on http://127.0.0.1:<port>/metrics (default: 0, disabled)");
         printDSEOptionHelp("iflow.fraction", "fraction of paths to use in information flow analysis (double)");
+        printDSEOptionHelp("iflow.samples", "fixed no. of paths to sample for information flow analysis (overrides iflow.fraction)");
+        printDSEOptionHelp("iflow.threads", "no. of worker threads for evaluating taint checks (default: 1)");
         printDSEOptionHelp("static.info", "static information on inheritance and constructors for objects (filename)");
         printDSEOptionHelp("random.seed", "random seed (long value)");
         System.out.println();
@@ -15,6 +15,8 @@
 package tools.aqua.dse;
 
 import org.apache.commons.cli.*;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
 
 public class DSELauncher {
 
@@ -30,6 +32,10 @@ public class DSELauncher {
             return;
         }
 
+        if (config.getLogLevel() != null) {
+            Configurator.setLevel("tools.aqua.dse", Level.getLevel(config.getLogLevel()));
+        }
+
         DSE dse = new DSE(config);
         dse.executeAnalysis();
     }
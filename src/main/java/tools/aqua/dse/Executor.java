@@ -17,16 +17,25 @@ package tools.aqua.dse;
 
 import gov.nasa.jpf.constraints.api.Valuation;
 import gov.nasa.jpf.constraints.api.ValuationEntry;
+import lombok.extern.slf4j.Slf4j;
+import tools.aqua.dse.channel.MappedChannel;
+import tools.aqua.dse.iflow.FlowDictionary;
+import tools.aqua.dse.perf.Events;
+import tools.aqua.dse.perf.Phase;
+import tools.aqua.dse.perf.PerfStats;
 import tools.aqua.dse.trace.Trace;
 import tools.aqua.dse.trace.TraceParser;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 
+@Slf4j
 public class Executor {
 
     private String executurCmd;
@@ -35,60 +44,337 @@ public class Executor {
 
     private boolean b64encode;
 
-    public Executor(Config config) {
+    /** pass valuations and traces through a memory-mapped file */
+    private boolean mmap;
+
+    /** pass expected branch ids (concolic.prefix) */
+    private boolean prefix;
+
+    private final FlowDictionary dictionary;
+
+    /** channel reused for all executor runs (created on first use) */
+    private MappedChannel channel;
+
+    public Executor(Config config, FlowDictionary dictionary) {
         this.executurCmd = config.getExecutorCmd();
         this.executorArgs = config.getExecutorArgs();
         this.b64encode = config.isB64encodeExecutorValue();
+        this.mmap = config.getExecutorTransport().equals("mmap");
+        this.prefix = config.isExecutorPrefix();
+        this.dictionary = dictionary;
     }
 
     public Trace execute(Valuation val) {
+        return execute(val, null);
+    }
+
+    /**
+     * @param expected branch ids expected for val (may be null)
+     */
+    public Trace execute(Valuation val, List<Integer> expected) {
+        long t = PerfStats.start();
+        try {
+            return executeSingle(val, expected);
+        } finally {
+            PerfStats.stop(Phase.EXECUTE, t);
+        }
+    }
+
+    private Trace executeSingle(Valuation val, List<Integer> expected) {
         //System.out.println("model: " + val);
-        String[] cmd = new String[] {
-            this.executurCmd,
-            generateParam("concolic.bools", "__bool_", val),
-            generateParam("concolic.bytes", "__byte_", val),
-            generateParam("concolic.chars", "__char_", val),
-            generateParam("concolic.shorts", "__short_", val),
-            generateParam("concolic.ints", "__int_", val),
-            generateParam("concolic.longs", "__long_", val),
-            generateParam("concolic.floats", "__float_", val),
-            generateParam("concolic.doubles", "__double_", val),
-            generateParam("concolic.strings", "__string_", val),
-            this.executorArgs
-        };
-        System.out.println(String.join(" ", cmd));
+        if (mmap) {
+            return executeViaChannel(Collections.singletonList(val), Collections.singletonList(expected)).get(0);
+        }
+        List<String> params = concolicParams(val, b64encode);
+        params.add(prefixParam(expected));
+        String[] cmd = new String[params.size() + 2];
+        cmd[0] = this.executurCmd;
+        for (int i = 0; i < params.size(); i++) {
+            cmd[i + 1] = params.get(i).isEmpty() ? "" : "-D" + params.get(i);
+        }
+        cmd[cmd.length - 1] = this.executorArgs;
+        if (log.isDebugEnabled()) {
+            log.debug(String.join(" ", cmd));
+        }
         try {
-            Path output = Files.createTempFile("dse", "");
-            int rc = (new ProcessBuilder())
-                    .command(cmd)
-                    .redirectErrorStream(true)
-                    .redirectOutput(ProcessBuilder.Redirect.to(output.toFile()))
-                    .start()
-                    .waitFor();
-
-            List<String> lines = Files.readAllLines(output);
-//            System.out.println("%%%%%%%%%%% Executor Output Start");
-//            lines.forEach(n ->{System.out.println(n);});
-//            System.out.println("%%%%%%%%%%% Executor Output End");
-            Files.delete(output);
-            return TraceParser.parseTrace(lines, val);
+            List<String> lines = run(cmd, 1);
+            return TraceParser.parseTrace(lines, val, dictionary);
         } catch (Throwable t) {
             t.printStackTrace();
             return null;
         }
     }
 
-    private String generateParam(String optionName, String prefix, Valuation val) {
+    /**
+     * Executes several valuations in one process. The valuations are passed
+     * in a file (-Dconcolic.batch), one per line with tab separated
+     * concolic.* properties (always base64 encoded). The executor has to
+     * print one trace per valuation, each terminated by [ENDOFTRACE].
+     * If the executor stops early, the valuation without complete trace
+     * fails and the ones after it are executed by a new process.
+     *
+     * @return one trace per valuation (null for valuations without complete trace)
+     */
+    public List<Trace> execute(List<Valuation> vals) {
+        return execute(vals, null);
+    }
+
+    /**
+     * @param expected branch ids expected for each valuation (may be null)
+     */
+    public List<Trace> execute(List<Valuation> vals, List<List<Integer>> expected) {
+        long t = PerfStats.start();
+        try {
+            return executeBatch(vals, expected);
+        } finally {
+            PerfStats.stop(Phase.EXECUTE, t);
+        }
+    }
+
+    private List<Trace> executeBatch(List<Valuation> vals, List<List<Integer>> expected) {
+        List<Trace> traces = new ArrayList<>();
+        while (traces.size() < vals.size()) {
+            int done = traces.size();
+            List<Valuation> rest = vals.subList(done, vals.size());
+            List<List<Integer>> restExpected = (expected != null && done < expected.size())
+                    ? expected.subList(done, expected.size()) : null;
+            List<Trace> completed;
+            if (mmap) {
+                completed = executeViaChannel(rest, restExpected);
+            } else if (rest.size() == 1) {
+                completed = Collections.singletonList(executeSingle(rest.get(0), expectedFor(restExpected, 0)));
+            } else {
+                completed = executeViaFile(rest, restExpected);
+            }
+            traces.addAll(completed);
+            if (completed.size() < rest.size()) {
+                // the executor stopped in this valuation, later ones did not run
+                traces.add(null);
+                if (traces.size() < vals.size()) {
+                    log.warn("executor stopped after {} of {} valuations, re-running {} valuations",
+                            completed.size(), rest.size(), vals.size() - traces.size());
+                }
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * @return traces of the valuations the executor completed (in order)
+     */
+    private List<Trace> executeViaFile(List<Valuation> vals, List<List<Integer>> expected) {
+        List<String> lines = Collections.emptyList();
+        Path batch = null;
+        try {
+            batch = Files.createTempFile("dse-batch", "");
+            List<String> records = new ArrayList<>();
+            for (int i = 0; i < vals.size(); i++) {
+                // encoded, s.t. tabs and line breaks in values cannot break records
+                List<String> params = concolicParams(vals.get(i), true);
+                params.add(prefixParam(expectedFor(expected, i)));
+                params.removeIf(String::isEmpty);
+                records.add(String.join("\t", params));
+            }
+            Files.write(batch, records, StandardCharsets.UTF_8);
+
+            String[] cmd = new String[] {
+                this.executurCmd,
+                "-Dconcolic.batch=" + batch.toAbsolutePath(),
+                this.executorArgs
+            };
+            if (log.isDebugEnabled()) {
+                log.debug("{}   ({} valuations)", String.join(" ", cmd), vals.size());
+            }
+            lines = run(cmd, vals.size());
+        } catch (Throwable t) {
+            t.printStackTrace();
+        } finally {
+            deleteQuietly(batch);
+        }
+        return splitTraces(lines, vals);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("could not delete {}", file, e);
+        }
+    }
+
+    /**
+     * Executes valuations in one process, passing them through a
+     * memory-mapped file (-Dconcolic.channel). Traces are read back from
+     * binary trace records, from trace lines or, if the executor did not
+     * write any records, from the output.
+     *
+     * @return traces of the valuations the executor completed (in order)
+     */
+    private List<Trace> executeViaChannel(List<Valuation> vals, List<List<Integer>> expected) {
+        List<String> lines = Collections.emptyList();
+        List<byte[]> binary = Collections.emptyList();
+        List<List<Integer>> prefixes = (prefix && expected != null) ? expected : null;
+        try {
+            if (channel == null) {
+                channel = MappedChannel.create(vals, prefixes, MappedChannel.DEFAULT_CAPACITY);
+            } else {
+                channel.reset(vals, prefixes);
+            }
+            String[] cmd = new String[] {
+                this.executurCmd,
+                "-Dconcolic.channel=" + channel.getFile().toAbsolutePath(),
+                this.executorArgs
+            };
+            if (log.isDebugEnabled()) {
+                log.debug("{}   ({} valuations)", String.join(" ", cmd), vals.size());
+            }
+            List<String> output = run(cmd, vals.size());
+            binary = channel.readRecords(MappedChannel.TRACE);
+            lines = channel.readLines();
+            if (binary.isEmpty() && lines.isEmpty()) {
+                lines = output;
+            }
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+        if (!binary.isEmpty()) {
+            List<Trace> traces = new ArrayList<>();
+            for (int i = 0; i < vals.size() && i < binary.size(); i++) {
+                traces.add(parseOrNull(binary.get(i), vals.get(i)));
+            }
+            return traces;
+        }
+        if (vals.size() == 1) {
+            return Collections.singletonList(parseOrNull(lines, vals.get(0)));
+        }
+        return splitTraces(lines, vals);
+    }
+
+    /**
+     * deletes the channel file
+     */
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("could not close channel", e);
+        }
+        channel = null;
+    }
+
+    /**
+     * splits output at [ENDOFTRACE] into one trace per valuation that
+     * was completed (null if the trace cannot be parsed)
+     */
+    private List<Trace> splitTraces(List<String> lines, List<Valuation> vals) {
+        List<Trace> traces = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        for (String line : lines) {
+            if (traces.size() >= vals.size()) {
+                break;
+            }
+            chunk.add(line);
+            if (line.startsWith("[ENDOFTRACE]")) {
+                traces.add(parseOrNull(chunk, vals.get(traces.size())));
+                chunk = new ArrayList<>();
+            }
+        }
+        return traces;
+    }
+
+    private Trace parseOrNull(List<String> lines, Valuation val) {
+        try {
+            return TraceParser.parseTrace(lines, val, dictionary);
+        } catch (Throwable t) {
+            t.printStackTrace();
+            return null;
+        }
+    }
+
+    private Trace parseOrNull(byte[] data, Valuation val) {
+        try {
+            return TraceParser.parseTrace(data, val, dictionary);
+        } catch (Throwable t) {
+            t.printStackTrace();
+            return null;
+        }
+    }
+
+    private List<String> run(String[] cmd, int valuations) throws IOException, InterruptedException {
+        Path output = Files.createTempFile("dse", "");
+        Object event = Events.beginExecution();
+        long t = PerfStats.start();
+        Process process = (new ProcessBuilder())
+                .command(cmd)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(output.toFile()))
+                .start();
+        PerfStats.stop(Phase.SPAWN, t);
+        t = PerfStats.start();
+        int rc = process.waitFor();
+        PerfStats.stop(Phase.CHILD, t);
+        Events.commitExecution(event, valuations, rc, Files.size(output));
+
+        List<String> lines = Files.readAllLines(output);
+//        System.out.println("%%%%%%%%%%% Executor Output Start");
+//        lines.forEach(n ->{System.out.println(n);});
+//        System.out.println("%%%%%%%%%%% Executor Output End");
+        Files.delete(output);
+        return lines;
+    }
+
+    private static List<Integer> expectedFor(List<List<Integer>> expected, int i) {
+        return (expected != null && i < expected.size()) ? expected.get(i) : null;
+    }
+
+    /**
+     * @return concolic.prefix property (without -D, empty if not passed)
+     */
+    private String prefixParam(List<Integer> expected) {
+        if (!prefix || expected == null || expected.isEmpty()) {
+            return "";
+        }
+        List<String> ids = new ArrayList<>();
+        for (int id : expected) {
+            ids.add(Integer.toString(id));
+        }
+        return "concolic.prefix=" + String.join(",", ids);
+    }
+
+    /**
+     * @return concolic.* properties for val (without -D, empty if there are no values)
+     */
+    private List<String> concolicParams(Valuation val, boolean encode) {
+        List<String> params = new ArrayList<>();
+        params.add(generateParam("concolic.bools", "__bool_", val, encode));
+        params.add(generateParam("concolic.bytes", "__byte_", val, encode));
+        params.add(generateParam("concolic.chars", "__char_", val, encode));
+        params.add(generateParam("concolic.shorts", "__short_", val, encode));
+        params.add(generateParam("concolic.ints", "__int_", val, encode));
+        params.add(generateParam("concolic.longs", "__long_", val, encode));
+        params.add(generateParam("concolic.floats", "__float_", val, encode));
+        params.add(generateParam("concolic.doubles", "__double_", val, encode));
+        params.add(generateParam("concolic.strings", "__string_", val, encode));
+        return params;
+    }
+
+    private String generateParam(String optionName, String prefix, Valuation val, boolean encode) {
         ArrayList<String> param = new ArrayList<>();
         int max = getMaxVarId(val, prefix);
         for (int i=0; i<=max; i++) {
             String varName = prefix + i;
             Object value = val.getValue(varName);
             String p = (value != null) ? value.toString() : defaultValue(prefix);
-            param.add( b64encode ? b64Encode(p) : p);
+            param.add( encode ? b64Encode(p) : p);
         }
-        return (param.isEmpty()) ? "" : "-D" + optionName + "=" +
-                (b64encode ? "[b64]" : "") +
+        return (param.isEmpty()) ? "" : optionName + "=" +
+                (encode ? "[b64]" : "") +
                 String.join(",", param);
     }
 
@@ -17,22 +17,53 @@ package tools.aqua.dse;
 
 import gov.nasa.jpf.constraints.api.Expression;
 import gov.nasa.jpf.constraints.api.Valuation;
+import tools.aqua.dse.paths.JsonlResultSink;
+import tools.aqua.dse.perf.Phase;
+import tools.aqua.dse.perf.PerfStats;
 import tools.aqua.dse.trace.Decision;
 import tools.aqua.dse.trace.Trace;
 import tools.aqua.dse.tree.ConstraintsTree;
 import tools.aqua.dse.tree.ConstraintsTreeAnalysis;
 
+import java.util.Collections;
+import java.util.List;
+
 public class Explorer {
 
     private Valuation nextValuation = new Valuation();
 
+    private List<Valuation> nextValuations = Collections.singletonList(nextValuation);
+
     private final ConstraintsTree ctree;
 
+    private final int batchSize;
+
     public Explorer(Config config) {
         this.ctree = new ConstraintsTree(config);
+        this.batchSize = config.getExecutorBatch();
     }
 
     public void addTrace(Trace t) {
+        addToTree(t);
+        this.nextValuation = ctree.findNext();
+        this.nextValuations = (nextValuation != null)
+                ? Collections.singletonList(nextValuation) : Collections.<Valuation>emptyList();
+    }
+
+    /**
+     * adds traces for the valuations of the last batch (in order)
+     */
+    public void addTraces(List<Trace> traces) {
+        for (Trace t : traces) {
+            ctree.startTrace();
+            addToTree(t);
+        }
+        this.nextValuations = ctree.findNext(batchSize);
+        this.nextValuation = nextValuations.isEmpty() ? null : nextValuations.get(0);
+    }
+
+    private void addToTree(Trace t) {
+        long start = PerfStats.start();
         if (t == null) {
             ctree.failCurrentTargetBuggy("not executed or failed");
         }
@@ -42,7 +73,7 @@ public class Explorer {
             }
             ctree.finish(t.getTraceState());
         }
-        this.nextValuation = ctree.findNext();
+        PerfStats.stop(Phase.ADD_TRACE, start);
     }
 
     public boolean hasNextValuation() {
@@ -53,6 +84,27 @@ public class Explorer {
         return nextValuation;
     }
 
+    /**
+     * @return branch ids expected for the valuations of the next batch
+     */
+    public List<List<Integer>> getNextPrefixes() {
+        return ctree.getPendingPaths();
+    }
+
+    /**
+     * @return valuations of the next batch (at most dse.executor.batch)
+     */
+    public List<Valuation> getNextValuations() {
+        return nextValuations;
+    }
+
+    /**
+     * @param sink receives each path as soon as it is added to the tree
+     */
+    public void setResultSink(JsonlResultSink sink) {
+        ctree.setResultSink(sink);
+    }
+
     public ConstraintsTreeAnalysis getAnalysis() {
         return new ConstraintsTreeAnalysis(this.ctree);
     }
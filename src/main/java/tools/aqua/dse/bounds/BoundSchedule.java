@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.bounds;
+
+import gov.nasa.jpf.constraints.api.Variable;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers for sets of boundable variables the bound level that produced
+ * the last satisfiable result. Bounded solving for the same variables then
+ * starts at that level instead of retrying the smaller levels that failed.
+ * Entries are evicted in least-recently-used order. Only bounded levels
+ * are recorded: a query that needed the unbounded attempt leaves the
+ * entry as it is, so later queries over the same variables still try
+ * bounded solving.
+ */
+public class BoundSchedule {
+
+	/** level of the unbounded attempt (never recorded) */
+	public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	private final Map<Set<Variable<?>>, Integer> levels;
+
+	/** highest bounded level */
+	private final int maxLevel;
+
+	public BoundSchedule(final int capacity, final int maxLevel) {
+		this.maxLevel = maxLevel;
+		this.levels = new LinkedHashMap<Set<Variable<?>>, Integer>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Set<Variable<?>>, Integer> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * @return first bound level to try for vars (1 if nothing is known)
+	 */
+	public int start(Set<Variable<?>> vars) {
+		Integer level = levels.get(vars);
+		return level != null ? level : 1;
+	}
+
+	/**
+	 * records that a query over vars was satisfiable at level (ignored for
+	 * levels above the highest bounded level)
+	 */
+	public void record(Set<Variable<?>> vars, int level) {
+		if (level > maxLevel) {
+			return;
+		}
+		levels.put(new HashSet<>(vars), level);
+	}
+
+	public int size() {
+		return levels.size();
+	}
+}
@@ -19,13 +19,32 @@ import gov.nasa.jpf.constraints.api.ConstraintSolver;
 import gov.nasa.jpf.constraints.api.Expression;
 import gov.nasa.jpf.constraints.api.SolverContext;
 import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.ValuationEntry;
 import gov.nasa.jpf.constraints.api.Variable;
 import gov.nasa.jpf.constraints.expressions.*;
 import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import gov.nasa.jpf.constraints.types.Type;
 import gov.nasa.jpf.constraints.util.ExpressionUtil;
+import tools.aqua.dse.perf.Phase;
+import tools.aqua.dse.perf.PerfStats;
 import tools.aqua.redistribution.org.smtlib.sexpr.Sexpr;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 public class BoundedSolver extends ConstraintSolver {
 
@@ -44,28 +63,206 @@ public class BoundedSolver extends ConstraintSolver {
 
 	BoundType type;
 
+	/** names of the input types passed to the executor via concolic.* */
+	private static final Map<Type<?>, String> TYPE_NAMES = new HashMap<>();
+
+	static {
+		TYPE_NAMES.put(BuiltinTypes.SINT8, "byte");
+		TYPE_NAMES.put(BuiltinTypes.SINT16, "short");
+		TYPE_NAMES.put(BuiltinTypes.UINT16, "char");
+		TYPE_NAMES.put(BuiltinTypes.SINT32, "int");
+		TYPE_NAMES.put(BuiltinTypes.SINT64, "long");
+		TYPE_NAMES.put(BuiltinTypes.FLOAT, "float");
+		TYPE_NAMES.put(BuiltinTypes.DOUBLE, "double");
+		TYPE_NAMES.put(BuiltinTypes.STRING, "string");
+	}
+
+	/** names of all boundable types */
+	public static final Set<String> TYPES =
+			Collections.unmodifiableSet(new HashSet<>(TYPE_NAMES.values()));
+
+	public static final Set<String> DEFAULT_TYPES =
+			Collections.unmodifiableSet(new HashSet<>(Arrays.asList("int", "string", "double")));
+
+	/** names of the types that are bounded */
+	private final Set<String> types;
+
+	/** step width by type name for types that do not use the default step */
+	private final Map<String, Integer> typeSteps;
+
+	/** null unless bound levels are scheduled adaptively */
+	private final BoundSchedule schedule;
+
+	/** try all bound levels concurrently instead of one after another */
+	private final boolean parallel;
+
+	private ExecutorService pool;
+
+	/**
+	 * back-end solver of the current pool thread. Back ends may not support
+	 * concurrent use of one solver, so every worker has its own.
+	 */
+	private final ThreadLocal<ConstraintSolver> workerSolver;
+
+	private static class Attempt {
+		final Result result;
+		final Valuation model;
+
+		Attempt(Result result, Valuation model) {
+			this.result = result;
+			this.model = model;
+		}
+	}
+
 	public BoundedSolver(ConstraintSolver back, int bound, int itr, BoundType type) {
+		this(back, bound, itr, type, false, false, DEFAULT_TYPES, Collections.<String, Integer>emptyMap(), null);
+	}
+
+	/**
+	 * @param typeSteps     step width by type name (types without entry use bound)
+	 * @param workerSolvers creates the back-end solver of a pool thread
+	 *                      (required if parallel)
+	 */
+	public BoundedSolver(ConstraintSolver back, int bound, int itr, BoundType type,
+						 boolean adaptive, boolean parallel, Set<String> types,
+						 Map<String, Integer> typeSteps, Supplier<ConstraintSolver> workerSolvers) {
+		if (parallel && workerSolvers == null) {
+			throw new IllegalArgumentException("parallel bounded solving needs a solver per worker");
+		}
 		this.back = back;
+		this.types = types;
+		this.typeSteps = typeSteps;
 		this.bound = bound;
 		this.itr = itr;
 		this.type = type;
+		this.schedule = adaptive ? new BoundSchedule(1024, itr) : null;
+		this.parallel = parallel;
+		this.workerSolver = parallel ? ThreadLocal.withInitial(workerSolvers) : null;
 	}
 
   @Override
   public Result solve(Expression<Boolean> exprsn, Valuation vltn) {
 
+    Set<Variable<?>> vars = new HashSet<>();
+    for (Variable<?> v : ExpressionUtil.freeVariables(exprsn)) {
+      if (hasBoundableType(v)) {
+        vars.add(v);
+      }
+    }
+    if (vars.isEmpty()) {
+      return back.solve(exprsn, vltn);
+    }
+    if (parallel) {
+      return solveInParallel(Collections.singletonList(exprsn), vars, vltn);
+    }
+
     Result res = null;
-    if (isBoundable(exprsn)) {
-      for (int i = 1; i <= itr; i++) {
-        res = back.solve(ExpressionUtil.and(exprsn, getBound(exprsn, i)), vltn);
-        if (res == Result.SAT) {
-          return res;
-        }
+    for (int i = firstLevel(vars); i <= itr; i++) {
+      long t = PerfStats.start();
+      res = back.solve(ExpressionUtil.and(exprsn, getBound(vars, i)), vltn);
+      PerfStats.stop(Phase.BOUNDED, t);
+      if (res == Result.SAT) {
+        recordLevel(vars, i);
+        return res;
       }
     }
     return back.solve(exprsn, vltn);
   }
 
+	int firstLevel(Set<Variable<?>> vars) {
+		return schedule != null ? schedule.start(vars) : 1;
+	}
+
+	void recordLevel(Set<Variable<?>> vars, int level) {
+		if (schedule != null) {
+			schedule.record(vars, level);
+		}
+	}
+
+	boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Solves the assertions under every bound level and without bounds at
+	 * the same time, each on a context of its own. The SAT answer with the
+	 * smallest bound is taken, or the unbounded answer if no bounded level
+	 * is SAT. Attempts that have not started by then are skipped; running
+	 * ones end at the latest at the timeout of the worker solvers.
+	 */
+	Result solveInParallel(List<Expression<Boolean>> assertions, Set<Variable<?>> vars, Valuation vltn) {
+		List<Integer> levels = new ArrayList<>();
+		for (int i = firstLevel(vars); i <= itr; i++) {
+			levels.add(i);
+		}
+		levels.add(BoundSchedule.UNBOUNDED);
+
+		final AtomicBoolean decided = new AtomicBoolean(false);
+		List<Future<Attempt>> futures = new ArrayList<>();
+		for (int level : levels) {
+			final List<Expression<Boolean>> query = new ArrayList<>(assertions);
+			if (level != BoundSchedule.UNBOUNDED) {
+				query.add(getBound(vars, level));
+			}
+			futures.add(pool().submit(() -> decided.get() ? null : attempt(query)));
+		}
+
+		try {
+			for (int i = 0; i < levels.size(); i++) {
+				Attempt a = futures.get(i).get();
+				if (a.result == Result.SAT) {
+					if (vltn != null) {
+						for (ValuationEntry e : a.model.entries()) {
+							vltn.setValue(e.getVariable(), e.getValue());
+						}
+					}
+					recordLevel(vars, levels.get(i));
+					return a.result;
+				}
+				if (levels.get(i) == BoundSchedule.UNBOUNDED) {
+					return a.result;
+				}
+			}
+			throw new IllegalStateException("no unbounded attempt");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Result.DONT_KNOW;
+		} catch (ExecutionException e) {
+			e.getCause().printStackTrace();
+			return Result.ERROR;
+		} finally {
+			decided.set(true);
+			for (Future<Attempt> f : futures) {
+				f.cancel(false);
+			}
+		}
+	}
+
+	private Attempt attempt(List<Expression<Boolean>> query) {
+		long t = PerfStats.start();
+		SolverContext ctx = workerSolver.get().createContext();
+		try {
+			ctx.add(query);
+			Valuation model = new Valuation();
+			return new Attempt(ctx.solve(model), model);
+		} finally {
+			ctx.dispose();
+			PerfStats.stop(Phase.BOUNDED, t);
+		}
+	}
+
+	private synchronized ExecutorService pool() {
+		if (pool == null) {
+			// one thread per bound level and one for the unbounded attempt
+			pool = Executors.newFixedThreadPool(itr + 1, r -> {
+				Thread t = new Thread(r, "bounded-solver");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return pool;
+	}
+
 	@Override
 	public BoundedSolverContext createContext() {
 		SolverContext ctx = back.createContext();
@@ -73,53 +270,90 @@ public class BoundedSolver extends ConstraintSolver {
 	}
 
 	public Expression<Boolean> getBound(Expression<Boolean> expr, int index) {
-		int resultingBound = index * bound;
-
-		if (type == BoundType.fibonacci) {
-			resultingBound = fibonacci[index];
-		}
-
-		return getBoundExpression(expr, resultingBound);
+		return getBound(ExpressionUtil.freeVariables(expr), index);
 	}
 
-	private static Expression<Boolean> getBoundExpression(Expression<Boolean> e, int bound) {
-
-		Constant low = new Constant(BuiltinTypes.SINT32, -bound);
-		Constant high = new Constant(BuiltinTypes.SINT32, bound);
+	public Expression<Boolean> getBound(Collection<? extends Variable<?>> vars, int index) {
 		Expression<Boolean> ret = ExpressionUtil.TRUE;
-		for (Variable v : ExpressionUtil.freeVariables(e)) {
-			if (v.getType().equals(BuiltinTypes.SINT32)) {
-				Expression<Boolean> lower = new NumericBooleanExpression(low, NumericComparator.LE, v);
-				Expression<Boolean> upper = new NumericBooleanExpression(v, NumericComparator.LE, high);
-				ret = ExpressionUtil.and(ret, lower, upper);
-			}
-			if(v.getType().equals(BuiltinTypes.STRING)){
-				Expression<BigInteger> strLen = StringIntegerExpression.createLength(v);
-				Constant<BigInteger> upperBound = Constant.create(BuiltinTypes.INTEGER, BigInteger.valueOf(bound*10));
-				Expression<Boolean> upper = new NumericBooleanExpression(strLen, NumericComparator.LE, upperBound);
-				ret = ExpressionUtil.and(ret, upper);
+		for (Variable v : vars) {
+			if (!hasBoundableType(v)) {
+				continue;
 			}
-			if(v.getType().equals(BuiltinTypes.DOUBLE)){
-				Expression<Boolean> bound1 = new Negation(new FloatingPointBooleanExpression(FPComparator.FP_IS_NAN, v));
-				Expression<Boolean> bound2 = new Negation(new FloatingPointBooleanExpression(FPComparator.FP_IS_INFINITE, v));
-				ret = ExpressionUtil.and(ret, bound1, bound2);
+			String typeName = TYPE_NAMES.get(v.getType());
+			int bound = boundFor(typeName, index);
+			switch (typeName) {
+				case "byte":
+					// bounds at or beyond the type range do not restrict anything
+					if (bound < Byte.MAX_VALUE) {
+						ret = ExpressionUtil.and(ret, range(v, (byte) -bound, (byte) bound));
+					}
+					break;
+				case "short":
+					if (bound < Short.MAX_VALUE) {
+						ret = ExpressionUtil.and(ret, range(v, (short) -bound, (short) bound));
+					}
+					break;
+				case "char":
+					if (bound < Character.MAX_VALUE) {
+						Constant high = new Constant(BuiltinTypes.UINT16, (char) bound);
+						ret = ExpressionUtil.and(ret, new NumericBooleanExpression(v, NumericComparator.LE, high));
+					}
+					break;
+				case "int":
+					ret = ExpressionUtil.and(ret, range(v, -bound, bound));
+					break;
+				case "long":
+					ret = ExpressionUtil.and(ret, range(v, (long) -bound, (long) bound));
+					break;
+				case "string":
+					Expression<BigInteger> strLen = StringIntegerExpression.createLength(v);
+					Constant<BigInteger> upperBound = Constant.create(BuiltinTypes.INTEGER, BigInteger.valueOf(bound*10));
+					Expression<Boolean> upper = new NumericBooleanExpression(strLen, NumericComparator.LE, upperBound);
+					ret = ExpressionUtil.and(ret, upper);
+					break;
+				case "float":
+				case "double":
+					Expression<Boolean> bound1 = new Negation(new FloatingPointBooleanExpression(FPComparator.FP_IS_NAN, v));
+					Expression<Boolean> bound2 = new Negation(new FloatingPointBooleanExpression(FPComparator.FP_IS_INFINITE, v));
+					ret = ExpressionUtil.and(ret, bound1, bound2);
+					break;
+				default:
+					break;
 			}
 		}
 		return ret;
 	}
 
-	public static boolean isBoundable(Expression<Boolean> e){
+	/**
+	 * linear: index * step of the type (dse.bounds.&lt;type&gt;, default
+	 * dse.bounds.step); fibonacci: the index-th fibonacci number, times the
+	 * step of the type if it has one
+	 */
+	int boundFor(String typeName, int index) {
+		Integer step = typeSteps.get(typeName);
+		if (type == BoundType.fibonacci) {
+			return fibonacci[index] * (step != null ? step : 1);
+		}
+		return index * (step != null ? step : bound);
+	}
+
+	private static Expression<Boolean> range(Variable v, Object low, Object high) {
+		Expression<Boolean> lower = new NumericBooleanExpression(new Constant(v.getType(), low), NumericComparator.LE, v);
+		Expression<Boolean> upper = new NumericBooleanExpression(v, NumericComparator.LE, new Constant(v.getType(), high));
+		return ExpressionUtil.and(lower, upper);
+	}
+
+	public boolean isBoundable(Expression<Boolean> e){
 		for (Variable v : ExpressionUtil.freeVariables(e)) {
-			if (v.getType().equals(BuiltinTypes.SINT32)) {
-				return true;
-			}
-			if(v.getType().equals(BuiltinTypes.STRING)){
-				return true;
-			}
-			if(v.getType().equals(BuiltinTypes.DOUBLE)){
+			if (hasBoundableType(v)) {
 				return true;
 			}
 		}
 		return false;
 	}
+
+	public boolean hasBoundableType(Variable<?> v){
+		String name = TYPE_NAMES.get(v.getType());
+		return name != null && types.contains(name);
+	}
 }
@@ -19,15 +19,28 @@ import gov.nasa.jpf.constraints.api.ConstraintSolver.Result;
 import gov.nasa.jpf.constraints.api.Expression;
 import gov.nasa.jpf.constraints.api.SolverContext;
 import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
 import gov.nasa.jpf.constraints.util.ExpressionUtil;
+import tools.aqua.dse.perf.Phase;
+import tools.aqua.dse.perf.PerfStats;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public class BoundedSolverContext extends SolverContext {
 
 	private static class StackElement {
 		final ArrayList<Expression<Boolean>> exprsn = new ArrayList<>();
+
+		/** boundable variables that first occur in this frame */
+		final ArrayList<Variable<?>> vars = new ArrayList<>();
+
+		/** bound constraints on vars by iteration, built on first use */
+		final Map<Integer, Expression<Boolean>> bounds = new HashMap<>();
 	}
 
 	private final SolverContext ctx;
@@ -38,6 +51,9 @@ public class BoundedSolverContext extends SolverContext {
 
 	private final ArrayList<StackElement> dkStack = new ArrayList<>();
 
+	/** boundable variables of all frames on the stack */
+	private final Set<Variable<?>> boundable = new HashSet<>();
+
 	private StackElement current;
 	private BoundedSolver solver;
 
@@ -46,6 +62,9 @@ public class BoundedSolverContext extends SolverContext {
 		this.bound = bound;
 		this.itr = itr;
 		this.solver = solver;
+		// base frame for assertions added before the first push
+		this.current = new StackElement();
+		this.dkStack.add(current);
 	}
 
 	@Override
@@ -58,8 +77,10 @@ public class BoundedSolverContext extends SolverContext {
 	@Override
 	public void pop(int n) {
 		for (int i = 0; i < n; i++) {
-			current = dkStack.remove(dkStack.size() - 1);
+			StackElement top = dkStack.remove(dkStack.size() - 1);
+			boundable.removeAll(top.vars);
 		}
+		current = dkStack.get(dkStack.size() - 1);
 		ctx.pop(n);
 	}
 
@@ -74,6 +95,7 @@ public class BoundedSolverContext extends SolverContext {
 			for (Expression<Boolean> e : list) {
 				ctx.add(e);
 				current.exprsn.add(e);
+				track(e);
 			}
 		}catch (Throwable t){
 			t.printStackTrace();
@@ -85,32 +107,57 @@ public class BoundedSolverContext extends SolverContext {
 		ctx.dispose();
 	}
 
+	private void track(Expression<Boolean> e) {
+		for (Variable<?> v : ExpressionUtil.freeVariables(e)) {
+			if (solver.hasBoundableType(v) && boundable.add(v)) {
+				current.vars.add(v);
+				current.bounds.clear();
+			}
+		}
+	}
+
+	/**
+	 * Bounds for an iteration are the conjunction of the cached per-frame
+	 * bounds, so only frames with new variables have to build constraints.
+	 */
+	private List<Expression<Boolean>> getBounds(int i) {
+		List<Expression<Boolean>> bounds = new ArrayList<>();
+		for (StackElement s : dkStack) {
+			if (!s.vars.isEmpty()) {
+				bounds.add(s.bounds.computeIfAbsent(i, level -> solver.getBound(s.vars, level)));
+			}
+		}
+		return bounds;
+	}
 
 	private Result solveWithBound(Valuation vals) {
 
-		Expression all = ExpressionUtil.and(current.exprsn);
-		for (StackElement s : dkStack) {
-			all = ExpressionUtil.and(all, ExpressionUtil.and(s.exprsn));
+		if (solver.isParallel() && !boundable.isEmpty()) {
+			List<Expression<Boolean>> assertions = new ArrayList<>();
+			for (StackElement s : dkStack) {
+				assertions.addAll(s.exprsn);
+			}
+			return solver.solveInParallel(assertions, boundable, vals);
 		}
 
 		Result res = null;
-    if (BoundedSolver.isBoundable(all)) {
-      for (int i = 1; i <= itr; i++) {
-        Expression<Boolean> boundExpr = solver.getBound(all, i);
-        ArrayList<Expression<Boolean>> bounds = new ArrayList<>();
-        bounds.add(boundExpr);
-        push();
-        add(bounds);
-        res = ctx.solve(vals);
-		if(res == Result.ERROR){
-			return res;
+		if (!boundable.isEmpty()) {
+			for (int i = solver.firstLevel(boundable); i <= itr; i++) {
+				long t = PerfStats.start();
+				ctx.push();
+				ctx.add(getBounds(i));
+				res = ctx.solve(vals);
+				ctx.pop();
+				PerfStats.stop(Phase.BOUNDED, t);
+				if (res == Result.ERROR) {
+					return res;
+				}
+				if (res == Result.SAT) {
+					solver.recordLevel(boundable, i);
+					return res;
+				}
+			}
 		}
-        pop();
-        if (res == Result.SAT) {
-          return res;
-        }
-      }
-    }
 		return ctx.solve(vals);
 	}
 
@@ -19,7 +19,13 @@ import gov.nasa.jpf.constraints.api.ConstraintSolver;
 import gov.nasa.jpf.constraints.solvers.ConstraintSolverFactory;
 import gov.nasa.jpf.constraints.solvers.ConstraintSolverProvider;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class BoundedSolverProvider implements ConstraintSolverProvider {
 
@@ -35,6 +41,11 @@ public class BoundedSolverProvider implements ConstraintSolverProvider {
 		int bound = 200;
 		int iter = 1;
 
+		boolean adaptive = false;
+		boolean parallel = false;
+		long timeout = 10000;
+		Set<String> types = BoundedSolver.DEFAULT_TYPES;
+
 		BoundedSolver.BoundType type = BoundedSolver.BoundType.linear;
 
 		if (config.containsKey("dse.bounds.step")) {
@@ -46,8 +57,49 @@ public class BoundedSolverProvider implements ConstraintSolverProvider {
 		if (config.containsKey("dse.bounds.type") && config.getProperty("dse.bounds.type").equals("fibonacci")) {
 			type = BoundedSolver.BoundType.fibonacci;
 		}
+		if (config.containsKey("dse.bounds.adaptive")) {
+			adaptive = Boolean.parseBoolean(config.getProperty("dse.bounds.adaptive"));
+		}
+		if (config.containsKey("dse.bounds.parallel")) {
+			parallel = Boolean.parseBoolean(config.getProperty("dse.bounds.parallel"));
+		}
+		if (config.containsKey("dse.bounds.parallel.timeout")) {
+			timeout = Long.parseLong(config.getProperty("dse.bounds.parallel.timeout"));
+		}
+		if (config.containsKey("dse.bounds.types")) {
+			types = new HashSet<>(Arrays.asList(config.getProperty("dse.bounds.types").trim().split("\\s*,\\s*")));
+		}
+		Map<String, Integer> typeSteps = new HashMap<>();
+		for (String typeName : BoundedSolver.TYPES) {
+			String key = "dse.bounds." + typeName;
+			if (config.containsKey(key)) {
+				typeSteps.put(typeName, Integer.parseInt(config.getProperty(key).trim()));
+			}
+		}
 
 		ConstraintSolver solver = ConstraintSolverFactory.createSolver(dp, config);
-		return new BoundedSolver(solver, bound, iter, type);
+		Supplier<ConstraintSolver> workerSolvers = null;
+		if (parallel) {
+			final Properties workerConfig = workerConfig(config, dp, timeout);
+			workerSolvers = () -> ConstraintSolverFactory.createSolver(dp, workerConfig);
+		}
+		return new BoundedSolver(solver, bound, iter, type, adaptive, parallel, types, typeSteps, workerSolvers);
+	}
+
+	/**
+	 * Attempts that lose the race keep running in the back end until they
+	 * finish, so workers get a timeout (<dse.dp>.timeout in ms, e.g.
+	 * z3.timeout) unless one is configured already.
+	 */
+	private static Properties workerConfig(Properties config, String dp, long timeout) {
+		Properties workerConfig = new Properties();
+		for (String key : config.stringPropertyNames()) {
+			workerConfig.setProperty(key, config.getProperty(key));
+		}
+		String key = dp + ".timeout";
+		if (timeout > 0 && !workerConfig.containsKey(key)) {
+			workerConfig.setProperty(key, Long.toString(timeout));
+		}
+		return workerConfig;
 	}
 }
@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.channel;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import tools.aqua.dse.spill.ValuationCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-mapped file shared between DSE and an executor process. DSE
+ * writes the valuations to execute, the executor appends trace records.
+ * All numbers are big-endian:
+ *
+ * <pre>
+ *  0  int    magic 0x44534543 ("DSEC")
+ *  4  short  version
+ *  6  short  flags
+ *  8  int    no. of valuations
+ * 12  int    offset of trace region
+ * 16  int    no. of bytes written to trace region
+ * 20         valuations, encoded by {@link ValuationCodec}
+ *            if flags & PREFIXES: per valuation int n and n expected branch ids
+ *            trace region: records of (byte kind, int length, bytes)
+ * </pre>
+ *
+ * The executor updates the length field after every record, so records
+ * written before a crash can still be read. If a record does not fit, the
+ * writer grows the file; readers remap when the file has grown. DSE keeps
+ * one channel for the whole analysis and {@link #reset resets} it for
+ * every executor run, so there is a single mapping instead of one per run.
+ */
+public class MappedChannel implements Closeable {
+
+    public static final int MAGIC = 0x44534543;
+
+    public static final short VERSION = 1;
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024 * 1024;
+
+    /** flag: expected branch ids follow the valuations */
+    public static final short PREFIXES = 1;
+
+    /** record kind: trace line in the textual trace language (utf-8) */
+    public static final byte LINE = 1;
+
+    /** record kind: one complete trace in the binary trace format */
+    public static final byte TRACE = 2;
+
+    private static final int FLAGS = 6;
+    private static final int COUNT = 8;
+    private static final int TRACE_OFFSET = 12;
+    private static final int TRACE_LENGTH = 16;
+    private static final int HEADER_SIZE = 20;
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    /** mapping of the file, replaced when the file grows */
+    private MappedByteBuffer buffer;
+
+    /** delete file on close */
+    private final boolean owner;
+
+    private MappedChannel(Path file, int capacity, boolean owner) throws IOException {
+        this.file = file;
+        this.owner = owner;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = map(capacity > 0 ? capacity : channel.size());
+    }
+
+    private MappedByteBuffer map(long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * grows the file (and mapping) to hold at least size bytes
+     */
+    private void ensureCapacity(long size) throws IOException {
+        if (size <= buffer.capacity()) {
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("channel full");
+        }
+        buffer = map(Math.min(Integer.MAX_VALUE, Math.max(2L * buffer.capacity(), size)));
+    }
+
+    /**
+     * remaps if the other side has grown the file
+     */
+    private void refresh() throws IOException {
+        long size = Math.min(Integer.MAX_VALUE, channel.size());
+        if (size > buffer.capacity()) {
+            buffer = map(size);
+        }
+    }
+
+    /**
+     * creates a channel file holding vals (used by DSE)
+     */
+    public static MappedChannel create(List<Valuation> vals, int capacity) throws IOException {
+        return create(vals, null, capacity);
+    }
+
+    /**
+     * creates a channel file holding vals and the expected branch ids for
+     * each of them (prefixes may be null)
+     */
+    public static MappedChannel create(List<Valuation> vals, List<List<Integer>> prefixes, int capacity) throws IOException {
+        Path file = Files.createTempFile("dse-channel", "");
+        MappedChannel ch = new MappedChannel(file, capacity, true);
+        try {
+            ch.writeValuations(vals, prefixes);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+        return ch;
+    }
+
+    /**
+     * opens an existing channel file (used by executors)
+     */
+    public static MappedChannel open(Path file) throws IOException {
+        MappedChannel ch = new MappedChannel(file, 0, false);
+        if (ch.buffer.getInt(0) != MAGIC || ch.buffer.getShort(4) != VERSION) {
+            ch.close();
+            throw new IOException("not a dse channel (version " + VERSION + "): " + file);
+        }
+        return ch;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * replaces valuations and prefixes (may be null) for the next executor
+     * run and drops all trace records (used by DSE)
+     */
+    public void reset(List<Valuation> vals, List<List<Integer>> prefixes) throws IOException {
+        refresh();
+        writeValuations(vals, prefixes);
+    }
+
+    private void writeValuations(List<Valuation> vals, List<List<Integer>> prefixes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        ValuationCodec codec = new ValuationCodec();
+        for (Valuation val : vals) {
+            codec.write(val, out);
+        }
+        if (prefixes != null) {
+            for (int i = 0; i < vals.size(); i++) {
+                List<Integer> prefix = i < prefixes.size() ? prefixes.get(i) : null;
+                out.writeInt(prefix != null ? prefix.size() : 0);
+                if (prefix != null) {
+                    for (int branch : prefix) {
+                        out.writeInt(branch);
+                    }
+                }
+            }
+        }
+        out.flush();
+        ensureCapacity(HEADER_SIZE + (long) bytes.size());
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(FLAGS, prefixes != null ? PREFIXES : 0);
+        buffer.putInt(COUNT, vals.size());
+        buffer.putInt(TRACE_OFFSET, HEADER_SIZE + bytes.size());
+        buffer.putInt(TRACE_LENGTH, 0);
+        buffer.position(HEADER_SIZE);
+        buffer.put(bytes.toByteArray());
+    }
+
+    public List<Valuation> readValuations() throws IOException {
+        refresh();
+        DataInputStream in = valuationSection();
+        ValuationCodec codec = new ValuationCodec();
+        List<Valuation> vals = new ArrayList<>();
+        int count = buffer.getInt(COUNT);
+        for (int i = 0; i < count; i++) {
+            vals.add(codec.read(in));
+        }
+        return vals;
+    }
+
+    /**
+     * @return expected branch ids per valuation (null if DSE did not pass any)
+     */
+    public List<List<Integer>> readPrefixes() throws IOException {
+        refresh();
+        if ((buffer.getShort(FLAGS) & PREFIXES) == 0) {
+            return null;
+        }
+        DataInputStream in = valuationSection();
+        ValuationCodec codec = new ValuationCodec();
+        int count = buffer.getInt(COUNT);
+        for (int i = 0; i < count; i++) {
+            codec.read(in);
+        }
+        List<List<Integer>> prefixes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<Integer> prefix = new ArrayList<>();
+            int n = in.readInt();
+            for (int j = 0; j < n; j++) {
+                prefix.add(in.readInt());
+            }
+            prefixes.add(prefix);
+        }
+        return prefixes;
+    }
+
+    private DataInputStream valuationSection() {
+        byte[] bytes = new byte[buffer.getInt(TRACE_OFFSET) - HEADER_SIZE];
+        buffer.position(HEADER_SIZE);
+        buffer.get(bytes);
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    public void appendLine(String line) throws IOException {
+        appendRecord(LINE, line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void appendRecord(byte kind, byte[] payload) throws IOException {
+        int length = buffer.getInt(TRACE_LENGTH);
+        int pos = buffer.getInt(TRACE_OFFSET) + length;
+        ensureCapacity((long) pos + 5 + payload.length);
+        buffer.put(pos, kind);
+        buffer.putInt(pos + 1, payload.length);
+        buffer.position(pos + 5);
+        buffer.put(payload);
+        buffer.putInt(TRACE_LENGTH, length + 5 + payload.length);
+    }
+
+    /**
+     * @return payloads of all trace records of the given kind
+     */
+    public List<byte[]> readRecords(byte kind) throws IOException {
+        refresh();
+        List<byte[]> records = new ArrayList<>();
+        int pos = buffer.getInt(TRACE_OFFSET);
+        int end = pos + buffer.getInt(TRACE_LENGTH);
+        while (pos + 5 <= end) {
+            byte k = buffer.get(pos);
+            int length = buffer.getInt(pos + 1);
+            if (k == kind) {
+                byte[] payload = new byte[length];
+                buffer.position(pos + 5);
+                buffer.get(payload);
+                records.add(payload);
+            }
+            pos += 5 + length;
+        }
+        return records;
+    }
+
+    public List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (byte[] payload : readRecords(LINE)) {
+            lines.add(new String(payload, StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the mapping is released once the buffer is collected
+        buffer = null;
+        channel.close();
+        if (owner) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.eval;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.BitvectorExpression;
+import gov.nasa.jpf.constraints.expressions.BitvectorNegation;
+import gov.nasa.jpf.constraints.expressions.CastExpression;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.IfThenElse;
+import gov.nasa.jpf.constraints.expressions.Negation;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.expressions.UnaryMinus;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import gov.nasa.jpf.constraints.types.Type;
+
+import java.math.BigInteger;
+
+/**
+ * Evaluates expressions on concrete valuations without going through
+ * jconstraints. Covers the propositional, bit-vector and integer fragment
+ * that traces use. Values of bit-vector types are computed as longs and
+ * wrapped to the width of the type after every operation. Expressions
+ * outside of the fragment raise an {@link UnsupportedOperationException}.
+ */
+public final class ExpressionEvaluator {
+
+    private ExpressionEvaluator() {
+    }
+
+    /**
+     * @return true if e holds for values
+     * @throws UnsupportedOperationException if e cannot be evaluated
+     */
+    public static boolean holds(Expression<Boolean> e, Valuation values) {
+        return (Boolean) eval(e, values);
+    }
+
+    /**
+     * @return value of e for values, as instance of the class of e's type
+     * @throws UnsupportedOperationException if e cannot be evaluated
+     */
+    public static Object evaluate(Expression<?> e, Valuation values) {
+        Object v = eval(e, values);
+        if (v instanceof Long) {
+            return fromLong(e.getType(), (Long) v);
+        }
+        if (v instanceof Double && e.getType().equals(BuiltinTypes.FLOAT)) {
+            return ((Double) v).floatValue();
+        }
+        return v;
+    }
+
+    /**
+     * Booleans, longs (bit-vectors), big integers and doubles (floats and
+     * doubles) are used as internal representation.
+     */
+    static Object eval(Expression<?> e, Valuation values) {
+        if (e instanceof Constant) {
+            return internal(((Constant<?>) e).getValue());
+        }
+        if (e instanceof Variable) {
+            Object v = values.getValue((Variable<?>) e);
+            if (v == null) {
+                throw new UnsupportedOperationException("no value for " + e);
+            }
+            return internal(v);
+        }
+        if (e instanceof Negation) {
+            return !(Boolean) eval(((Negation) e).getNegated(), values);
+        }
+        if (e instanceof PropositionalCompound) {
+            return propositional((PropositionalCompound) e, values);
+        }
+        if (e instanceof NumericBooleanExpression) {
+            return compare((NumericBooleanExpression) e, values);
+        }
+        if (e instanceof NumericCompound) {
+            return arithmetic((NumericCompound<?>) e, values);
+        }
+        if (e instanceof UnaryMinus) {
+            Object v = eval(((UnaryMinus<?>) e).getNegated(), values);
+            if (v instanceof Long) {
+                return wrap(e.getType(), -(Long) v);
+            }
+            if (v instanceof BigInteger) {
+                return ((BigInteger) v).negate();
+            }
+            if (v instanceof Double) {
+                return round(e.getType(), -(Double) v);
+            }
+            throw unsupported(e);
+        }
+        if (e instanceof BitvectorExpression) {
+            return bitvector((BitvectorExpression<?>) e, values);
+        }
+        if (e instanceof BitvectorNegation) {
+            return wrap(e.getType(), ~asLong(eval(((BitvectorNegation<?>) e).getNegated(), values), e));
+        }
+        if (e instanceof IfThenElse) {
+            IfThenElse<?> ite = (IfThenElse<?>) e;
+            return (Boolean) eval(ite.getIf(), values) ? eval(ite.getThen(), values) : eval(ite.getElse(), values);
+        }
+        if (e instanceof CastExpression) {
+            return cast((CastExpression<?, ?>) e, values);
+        }
+        throw unsupported(e);
+    }
+
+    private static Boolean propositional(PropositionalCompound e, Valuation values) {
+        boolean l = (Boolean) eval(e.getLeft(), values);
+        switch (e.getOperator()) {
+            case AND:
+                return l && (Boolean) eval(e.getRight(), values);
+            case OR:
+                return l || (Boolean) eval(e.getRight(), values);
+            case IMPLY:
+                return !l || (Boolean) eval(e.getRight(), values);
+            case EQUIV:
+                return l == (Boolean) eval(e.getRight(), values);
+            case XOR:
+                return l != (Boolean) eval(e.getRight(), values);
+            default:
+                throw unsupported(e);
+        }
+    }
+
+    private static Boolean compare(NumericBooleanExpression e, Valuation values) {
+        Object l = eval(e.getLeft(), values);
+        Object r = eval(e.getRight(), values);
+        if (l instanceof Double && r instanceof Double) {
+            double a = (Double) l;
+            double b = (Double) r;
+            switch (e.getComparator()) {
+                case EQ: return a == b;
+                case NE: return a != b;
+                case LT: return a < b;
+                case LE: return a <= b;
+                case GT: return a > b;
+                case GE: return a >= b;
+                default: throw unsupported(e);
+            }
+        }
+        int c;
+        if (l instanceof Long && r instanceof Long) {
+            c = Long.compare((Long) l, (Long) r);
+        } else if (l instanceof BigInteger && r instanceof BigInteger) {
+            c = ((BigInteger) l).compareTo((BigInteger) r);
+        } else if (l instanceof Boolean && r instanceof Boolean) {
+            c = Boolean.compare((Boolean) l, (Boolean) r);
+        } else {
+            throw unsupported(e);
+        }
+        switch (e.getComparator()) {
+            case EQ: return c == 0;
+            case NE: return c != 0;
+            case LT: return c < 0;
+            case LE: return c <= 0;
+            case GT: return c > 0;
+            case GE: return c >= 0;
+            default: throw unsupported(e);
+        }
+    }
+
+    private static Object arithmetic(NumericCompound<?> e, Valuation values) {
+        Object l = eval(e.getLeft(), values);
+        Object r = eval(e.getRight(), values);
+        Type<?> type = e.getType();
+        if (l instanceof Long && r instanceof Long) {
+            long a = (Long) l;
+            long b = (Long) r;
+            switch (e.getOperator()) {
+                case PLUS: return wrap(type, a + b);
+                case MINUS: return wrap(type, a - b);
+                case MUL: return wrap(type, a * b);
+                case DIV:
+                    // smt-lib defines division by zero differently than java
+                    if (b == 0) throw unsupported(e);
+                    return wrap(type, a / b);
+                case REM:
+                    if (b == 0) throw unsupported(e);
+                    return wrap(type, a % b);
+                default: throw unsupported(e);
+            }
+        }
+        if (l instanceof BigInteger && r instanceof BigInteger) {
+            BigInteger a = (BigInteger) l;
+            BigInteger b = (BigInteger) r;
+            switch (e.getOperator()) {
+                case PLUS: return a.add(b);
+                case MINUS: return a.subtract(b);
+                case MUL: return a.multiply(b);
+                default: throw unsupported(e);
+            }
+        }
+        if (l instanceof Double && r instanceof Double) {
+            double a = (Double) l;
+            double b = (Double) r;
+            switch (e.getOperator()) {
+                case PLUS: return round(type, a + b);
+                case MINUS: return round(type, a - b);
+                case MUL: return round(type, a * b);
+                case DIV: return round(type, a / b);
+                default: throw unsupported(e);
+            }
+        }
+        throw unsupported(e);
+    }
+
+    private static Long bitvector(BitvectorExpression<?> e, Valuation values) {
+        long a = asLong(eval(e.getLeft(), values), e);
+        long b = asLong(eval(e.getRight(), values), e);
+        Type<?> type = e.getType();
+        int width = width(type);
+        switch (e.getOperator()) {
+            case AND: return wrap(type, a & b);
+            case OR: return wrap(type, a | b);
+            case XOR: return wrap(type, a ^ b);
+            case SHIFTL:
+                return (b < 0 || b >= width) ? 0L : wrap(type, a << b);
+            case SHIFTR:
+                return (b < 0 || b >= width) ? (a < 0 ? -1L : 0L) : wrap(type, a >> b);
+            case SHIFTUR:
+                long unsigned = width == 64 ? a : a & ((1L << width) - 1);
+                return (b < 0 || b >= width) ? 0L : wrap(type, unsigned >>> b);
+            default: throw unsupported(e);
+        }
+    }
+
+    private static Object cast(CastExpression<?, ?> e, Valuation values) {
+        Object v = eval(e.getCasted(), values);
+        Type<?> target = e.getType();
+        if (v instanceof Long) {
+            long l = (Long) v;
+            if (isBitvector(target)) {
+                return wrap(target, l);
+            }
+            if (target.equals(BuiltinTypes.INTEGER)) {
+                return BigInteger.valueOf(l);
+            }
+            if (target.equals(BuiltinTypes.DOUBLE) || target.equals(BuiltinTypes.FLOAT)) {
+                return round(target, (double) l);
+            }
+        }
+        if (v instanceof Double && (target.equals(BuiltinTypes.DOUBLE) || target.equals(BuiltinTypes.FLOAT))) {
+            return round(target, (Double) v);
+        }
+        throw unsupported(e);
+    }
+
+    private static Object internal(Object v) {
+        if (v instanceof Boolean || v instanceof BigInteger) {
+            return v;
+        }
+        if (v instanceof Byte || v instanceof Short || v instanceof Integer || v instanceof Long) {
+            return ((Number) v).longValue();
+        }
+        if (v instanceof Character) {
+            return (long) (Character) v;
+        }
+        if (v instanceof Float || v instanceof Double) {
+            return ((Number) v).doubleValue();
+        }
+        throw new UnsupportedOperationException("unsupported value " + v);
+    }
+
+    private static long asLong(Object v, Expression<?> e) {
+        if (!(v instanceof Long)) {
+            throw unsupported(e);
+        }
+        return (Long) v;
+    }
+
+    private static boolean isBitvector(Type<?> type) {
+        return type.equals(BuiltinTypes.SINT8) || type.equals(BuiltinTypes.SINT16)
+                || type.equals(BuiltinTypes.UINT16) || type.equals(BuiltinTypes.SINT32)
+                || type.equals(BuiltinTypes.SINT64);
+    }
+
+    private static int width(Type<?> type) {
+        if (type.equals(BuiltinTypes.SINT8)) return 8;
+        if (type.equals(BuiltinTypes.SINT16) || type.equals(BuiltinTypes.UINT16)) return 16;
+        if (type.equals(BuiltinTypes.SINT32)) return 32;
+        if (type.equals(BuiltinTypes.SINT64)) return 64;
+        throw new UnsupportedOperationException("not a bit-vector type: " + type);
+    }
+
+    /**
+     * truncates v to the width of type (sign-extending all but char)
+     */
+    static long wrap(Type<?> type, long v) {
+        if (type.equals(BuiltinTypes.SINT32)) return (int) v;
+        if (type.equals(BuiltinTypes.SINT64)) return v;
+        if (type.equals(BuiltinTypes.SINT8)) return (byte) v;
+        if (type.equals(BuiltinTypes.SINT16)) return (short) v;
+        if (type.equals(BuiltinTypes.UINT16)) return (char) v;
+        throw new UnsupportedOperationException("not a bit-vector type: " + type);
+    }
+
+    private static double round(Type<?> type, double v) {
+        return type.equals(BuiltinTypes.FLOAT) ? (double) (float) v : v;
+    }
+
+    private static Object fromLong(Type<?> type, long v) {
+        if (type.equals(BuiltinTypes.SINT32)) return (int) v;
+        if (type.equals(BuiltinTypes.SINT64)) return v;
+        if (type.equals(BuiltinTypes.SINT8)) return (byte) v;
+        if (type.equals(BuiltinTypes.SINT16)) return (short) v;
+        if (type.equals(BuiltinTypes.UINT16)) return (char) v;
+        return v;
+    }
+
+    private static UnsupportedOperationException unsupported(Expression<?> e) {
+        return new UnsupportedOperationException("cannot evaluate " + e.getClass().getSimpleName() + ": " + e);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.eval;
+
+/**
+ * Flat register program compiled from a boolean or bit-vector expression
+ * by {@link ProgramCompiler}. Every instruction takes five ints: opcode,
+ * target register, two operand registers (or a slot / constant index) and
+ * a kind that names the type of the result (see {@link ProgramCompiler}).
+ * Booleans are 0 and 1, bit-vectors are wrapped longs.
+ */
+public final class Program {
+
+    static final int CONST = 0;
+    static final int LOAD = 1;
+    static final int NOT = 2;
+    static final int AND = 3;
+    static final int OR = 4;
+    static final int IMPLY = 5;
+    static final int EQUIV = 6;
+    static final int XOR = 7;
+    static final int EQ = 8;
+    static final int NE = 9;
+    static final int LT = 10;
+    static final int LE = 11;
+    static final int GT = 12;
+    static final int GE = 13;
+    static final int ADD = 14;
+    static final int SUB = 15;
+    static final int MUL = 16;
+    static final int DIV = 17;
+    static final int REM = 18;
+    static final int NEG = 19;
+    static final int BAND = 20;
+    static final int BOR = 21;
+    static final int BXOR = 22;
+    static final int BNOT = 23;
+    static final int SHL = 24;
+    static final int SHR = 25;
+    static final int USHR = 26;
+    static final int WRAP = 27;
+    /** the kind operand holds the register of the else value */
+    static final int SELECT = 28;
+
+    private final int[] code;
+
+    private final long[] constants;
+
+    private final int registers;
+
+    private final int result;
+
+    Program(int[] code, long[] constants, int registers, int result) {
+        this.code = code;
+        this.constants = constants;
+        this.registers = registers;
+        this.result = result;
+    }
+
+    public boolean holds(Slots slots) {
+        return run(slots) != 0;
+    }
+
+    public long run(Slots slots) {
+        final long[] r = new long[registers];
+        final int[] code = this.code;
+        for (int pc = 0; pc < code.length; pc += 5) {
+            final int d = code[pc + 1];
+            final int a = code[pc + 2];
+            final int b = code[pc + 3];
+            final int k = code[pc + 4];
+            switch (code[pc]) {
+                case CONST: r[d] = constants[a]; break;
+                case LOAD: r[d] = slots.get(a); break;
+                case NOT: r[d] = r[a] ^ 1L; break;
+                case AND: r[d] = r[a] & r[b]; break;
+                case OR: r[d] = r[a] | r[b]; break;
+                case IMPLY: r[d] = (r[a] ^ 1L) | r[b]; break;
+                case EQUIV: r[d] = (r[a] ^ r[b]) ^ 1L; break;
+                case XOR: r[d] = r[a] ^ r[b]; break;
+                case EQ: r[d] = r[a] == r[b] ? 1L : 0L; break;
+                case NE: r[d] = r[a] != r[b] ? 1L : 0L; break;
+                case LT: r[d] = r[a] < r[b] ? 1L : 0L; break;
+                case LE: r[d] = r[a] <= r[b] ? 1L : 0L; break;
+                case GT: r[d] = r[a] > r[b] ? 1L : 0L; break;
+                case GE: r[d] = r[a] >= r[b] ? 1L : 0L; break;
+                case ADD: r[d] = wrap(k, r[a] + r[b]); break;
+                case SUB: r[d] = wrap(k, r[a] - r[b]); break;
+                case MUL: r[d] = wrap(k, r[a] * r[b]); break;
+                case DIV: r[d] = wrap(k, r[a] / divisor(r[b])); break;
+                case REM: r[d] = wrap(k, r[a] % divisor(r[b])); break;
+                case NEG: r[d] = wrap(k, -r[a]); break;
+                case BAND: r[d] = wrap(k, r[a] & r[b]); break;
+                case BOR: r[d] = wrap(k, r[a] | r[b]); break;
+                case BXOR: r[d] = wrap(k, r[a] ^ r[b]); break;
+                case BNOT: r[d] = wrap(k, ~r[a]); break;
+                case SHL: r[d] = shiftedOut(k, r[b]) ? 0L : wrap(k, r[a] << r[b]); break;
+                case SHR: r[d] = shiftedOut(k, r[b]) ? (r[a] < 0 ? -1L : 0L) : wrap(k, r[a] >> r[b]); break;
+                case USHR: r[d] = shiftedOut(k, r[b]) ? 0L : wrap(k, unsigned(k, r[a]) >>> r[b]); break;
+                case WRAP: r[d] = wrap(k, r[a]); break;
+                case SELECT: r[d] = r[a] != 0 ? r[b] : r[k]; break;
+                default: throw new IllegalStateException("unknown opcode " + code[pc]);
+            }
+        }
+        return r[result];
+    }
+
+    public int size() {
+        return code.length / 5;
+    }
+
+    private static long divisor(long b) {
+        // smt-lib defines division by zero differently than java
+        if (b == 0) {
+            throw new UnsupportedOperationException("division by zero");
+        }
+        return b;
+    }
+
+    static int width(int kind) {
+        return kind == ProgramCompiler.U16 ? 16 : kind;
+    }
+
+    private static boolean shiftedOut(int kind, long shift) {
+        return shift < 0 || shift >= width(kind);
+    }
+
+    private static long unsigned(int kind, long v) {
+        return kind == ProgramCompiler.S64 ? v : v & ((1L << width(kind)) - 1);
+    }
+
+    static long wrap(int kind, long v) {
+        switch (kind) {
+            case ProgramCompiler.S8: return (byte) v;
+            case ProgramCompiler.S16: return (short) v;
+            case ProgramCompiler.U16: return (char) v;
+            case ProgramCompiler.S32: return (int) v;
+            default: return v;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.eval;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.BitvectorExpression;
+import gov.nasa.jpf.constraints.expressions.BitvectorNegation;
+import gov.nasa.jpf.constraints.expressions.CastExpression;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.IfThenElse;
+import gov.nasa.jpf.constraints.expressions.Negation;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.expressions.UnaryMinus;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import gov.nasa.jpf.constraints.types.Type;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles boolean and bit-vector expressions into {@link Program}s.
+ * Shared subexpressions are compiled once. Expressions over other types
+ * (strings, floating-point numbers, unbounded integers) are not compiled
+ * and have to be interpreted by {@link ExpressionEvaluator}.
+ */
+public final class ProgramCompiler {
+
+    /* kinds of values */
+    static final int BOOL = 1;
+    static final int S8 = 8;
+    static final int S16 = 16;
+    static final int U16 = -16;
+    static final int S32 = 32;
+    static final int S64 = 64;
+
+    private static class Unsupported extends RuntimeException {
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final SlotMap slots;
+
+    private final List<Integer> code = new ArrayList<>();
+
+    private final List<Long> constants = new ArrayList<>();
+
+    private final Map<Expression<?>, Integer> compiled = new IdentityHashMap<>();
+
+    private ProgramCompiler(SlotMap slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * @return program computing e or null if e is not supported
+     */
+    public static Program compile(Expression<?> e, SlotMap slots) {
+        ProgramCompiler c = new ProgramCompiler(slots);
+        int result;
+        try {
+            result = c.emit(e);
+        } catch (Unsupported ex) {
+            return null;
+        }
+        int[] code = new int[c.code.size()];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = c.code.get(i);
+        }
+        long[] constants = new long[c.constants.size()];
+        for (int i = 0; i < constants.length; i++) {
+            constants[i] = c.constants.get(i);
+        }
+        return new Program(code, constants, code.length / 5, result);
+    }
+
+    private int emit(Expression<?> e) {
+        Integer reg = compiled.get(e);
+        if (reg == null) {
+            reg = emitNew(e);
+            compiled.put(e, reg);
+        }
+        return reg;
+    }
+
+    private int emitNew(Expression<?> e) {
+        if (e instanceof Constant) {
+            kind(e.getType());
+            constants.add(toLong(((Constant<?>) e).getValue()));
+            return instr(Program.CONST, constants.size() - 1, 0, 0);
+        }
+        if (e instanceof Variable) {
+            kind(e.getType());
+            return instr(Program.LOAD, slots.slot((Variable<?>) e), 0, 0);
+        }
+        if (e instanceof Negation) {
+            return instr(Program.NOT, emit(((Negation) e).getNegated()), 0, BOOL);
+        }
+        if (e instanceof PropositionalCompound) {
+            PropositionalCompound pc = (PropositionalCompound) e;
+            int op;
+            switch (pc.getOperator()) {
+                case AND: op = Program.AND; break;
+                case OR: op = Program.OR; break;
+                case IMPLY: op = Program.IMPLY; break;
+                case EQUIV: op = Program.EQUIV; break;
+                case XOR: op = Program.XOR; break;
+                default: throw new Unsupported();
+            }
+            return instr(op, emit(pc.getLeft()), emit(pc.getRight()), BOOL);
+        }
+        if (e instanceof NumericBooleanExpression) {
+            NumericBooleanExpression nb = (NumericBooleanExpression) e;
+            kind(nb.getLeft().getType());
+            kind(nb.getRight().getType());
+            int op;
+            switch (nb.getComparator()) {
+                case EQ: op = Program.EQ; break;
+                case NE: op = Program.NE; break;
+                case LT: op = Program.LT; break;
+                case LE: op = Program.LE; break;
+                case GT: op = Program.GT; break;
+                case GE: op = Program.GE; break;
+                default: throw new Unsupported();
+            }
+            return instr(op, emit(nb.getLeft()), emit(nb.getRight()), BOOL);
+        }
+        if (e instanceof NumericCompound) {
+            NumericCompound<?> nc = (NumericCompound<?>) e;
+            int kind = bitvectorKind(e.getType());
+            int op;
+            switch (nc.getOperator()) {
+                case PLUS: op = Program.ADD; break;
+                case MINUS: op = Program.SUB; break;
+                case MUL: op = Program.MUL; break;
+                case DIV: op = Program.DIV; break;
+                case REM: op = Program.REM; break;
+                default: throw new Unsupported();
+            }
+            return instr(op, emit(nc.getLeft()), emit(nc.getRight()), kind);
+        }
+        if (e instanceof UnaryMinus) {
+            int kind = bitvectorKind(e.getType());
+            return instr(Program.NEG, emit(((UnaryMinus<?>) e).getNegated()), 0, kind);
+        }
+        if (e instanceof BitvectorExpression) {
+            BitvectorExpression<?> bv = (BitvectorExpression<?>) e;
+            int kind = bitvectorKind(e.getType());
+            int op;
+            switch (bv.getOperator()) {
+                case AND: op = Program.BAND; break;
+                case OR: op = Program.BOR; break;
+                case XOR: op = Program.BXOR; break;
+                case SHIFTL: op = Program.SHL; break;
+                case SHIFTR: op = Program.SHR; break;
+                case SHIFTUR: op = Program.USHR; break;
+                default: throw new Unsupported();
+            }
+            return instr(op, emit(bv.getLeft()), emit(bv.getRight()), kind);
+        }
+        if (e instanceof BitvectorNegation) {
+            int kind = bitvectorKind(e.getType());
+            return instr(Program.BNOT, emit(((BitvectorNegation<?>) e).getNegated()), 0, kind);
+        }
+        if (e instanceof IfThenElse) {
+            IfThenElse<?> ite = (IfThenElse<?>) e;
+            kind(e.getType());
+            return instr(Program.SELECT, emit(ite.getIf()), emit(ite.getThen()), emit(ite.getElse()));
+        }
+        if (e instanceof CastExpression) {
+            CastExpression<?, ?> cast = (CastExpression<?, ?>) e;
+            bitvectorKind(cast.getCasted().getType());
+            return instr(Program.WRAP, emit(cast.getCasted()), 0, bitvectorKind(e.getType()));
+        }
+        throw new Unsupported();
+    }
+
+    private int instr(int op, int a, int b, int kind) {
+        int target = code.size() / 5;
+        code.add(op);
+        code.add(target);
+        code.add(a);
+        code.add(b);
+        code.add(kind);
+        return target;
+    }
+
+    private static long toLong(Object v) {
+        if (v instanceof Boolean) {
+            return (Boolean) v ? 1L : 0L;
+        }
+        if (v instanceof Character) {
+            return (Character) v;
+        }
+        if (v instanceof Byte || v instanceof Short || v instanceof Integer || v instanceof Long) {
+            return ((Number) v).longValue();
+        }
+        throw new Unsupported();
+    }
+
+    private static int bitvectorKind(Type<?> type) {
+        int kind = kind(type);
+        if (kind == BOOL) {
+            throw new Unsupported();
+        }
+        return kind;
+    }
+
+    private static int kind(Type<?> type) {
+        if (type.equals(BuiltinTypes.BOOL)) return BOOL;
+        if (type.equals(BuiltinTypes.SINT8)) return S8;
+        if (type.equals(BuiltinTypes.SINT16)) return S16;
+        if (type.equals(BuiltinTypes.UINT16)) return U16;
+        if (type.equals(BuiltinTypes.SINT32)) return S32;
+        if (type.equals(BuiltinTypes.SINT64)) return S64;
+        throw new Unsupported();
+    }
+}
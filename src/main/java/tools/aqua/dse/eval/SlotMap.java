@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.eval;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.ValuationEntry;
+import gov.nasa.jpf.constraints.api.Variable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns array slots to variables so that compiled programs can read
+ * values from a primitive array instead of looking them up in a
+ * {@link Valuation}.
+ */
+public class SlotMap {
+
+    private final Map<Variable<?>, Integer> slots = new HashMap<>();
+
+    public int slot(Variable<?> v) {
+        Integer slot = slots.get(v);
+        if (slot == null) {
+            slot = slots.size();
+            slots.put(v, slot);
+        }
+        return slot;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * @return slots holding the boolean and bit-vector values of values
+     */
+    public Slots load(Valuation values) {
+        for (ValuationEntry<?> e : values) {
+            slot(e.getVariable());
+        }
+        Slots loaded = new Slots(this, values, size());
+        for (ValuationEntry<?> e : values) {
+            Object v = e.getValue();
+            int slot = slots.get(e.getVariable());
+            if (v instanceof Boolean) {
+                loaded.set(slot, (Boolean) v ? 1L : 0L);
+            } else if (v instanceof Byte || v instanceof Short || v instanceof Integer || v instanceof Long) {
+                loaded.set(slot, ((Number) v).longValue());
+            } else if (v instanceof Character) {
+                loaded.set(slot, (Character) v);
+            }
+        }
+        return loaded;
+    }
+}
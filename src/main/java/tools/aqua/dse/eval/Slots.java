@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.eval;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+
+/**
+ * Values of a valuation laid out by a {@link SlotMap}. The valuation is
+ * kept for expressions that have to be interpreted.
+ */
+public class Slots {
+
+    private final SlotMap map;
+
+    private final Valuation valuation;
+
+    private final long[] values;
+
+    private final boolean[] defined;
+
+    Slots(SlotMap map, Valuation valuation, int size) {
+        this.map = map;
+        this.valuation = valuation;
+        this.values = new long[size];
+        this.defined = new boolean[size];
+    }
+
+    void set(int slot, long value) {
+        values[slot] = value;
+        defined[slot] = true;
+    }
+
+    long get(int slot) {
+        if (slot >= values.length || !defined[slot]) {
+            throw new UnsupportedOperationException("no value for slot " + slot);
+        }
+        return values[slot];
+    }
+
+    public SlotMap getMap() {
+        return map;
+    }
+
+    public Valuation getValuation() {
+        return valuation;
+    }
+}
@@ -0,0 +1,79 @@
+package tools.aqua.dse.iflow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Symbol table for names occurring in information flow records. Flow
+ * records are parsed once, when a trace is read, into int-pair edges
+ * over the interned names.
+ */
+public class FlowDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final List<String> names = new ArrayList<>();
+
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * parses a flow record (name=v tainted by a, b) or a check record
+     * (checkFor=v on value tainted by a, b) and appends its edges to out
+     *
+     * @param flowInfo
+     * @param out
+     */
+    public void parse(String flowInfo, FlowEdges out) {
+        if (flowInfo.startsWith("checkFor")) {
+            parseCheck(flowInfo, out);
+        }
+        else {
+            parseFlow(flowInfo, out);
+        }
+    }
+
+    private void parseCheck(String checkInfo, FlowEdges out) {
+        String[] condition = checkInfo.trim().split("on value tainted by");
+        int var = intern(condition[0].replace("checkFor=", "").trim());
+
+        if (condition.length > 1) {
+            String[] taint = condition[1].trim().split(",");
+            for (String t : taint) {
+                out.addCheck(var, intern(t.trim()));
+            }
+        }
+        else {
+            out.addCheck(var, FlowEdges.NONE);
+        }
+    }
+
+    private void parseFlow(String flowInfo, FlowEdges out) {
+        String[] condition = flowInfo.trim().split("tainted by");
+        int var = intern(condition[0].replace("name=", "").trim());
+
+        if (condition.length > 1) {
+            String[] taint = condition[1].trim().split(",");
+            for (String t : taint) {
+                out.addFlow(intern(t.trim()), var);
+            }
+        }
+    }
+}
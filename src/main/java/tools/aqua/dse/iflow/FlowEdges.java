@@ -0,0 +1,70 @@
+package tools.aqua.dse.iflow;
+
+import java.util.Arrays;
+
+/**
+ * Information flow records of one trace as int pairs over the ids of a
+ * {@link FlowDictionary}. A flow is stored as (source, target). A check on
+ * a value is stored with the complement of the checked value's id as
+ * first element, s.t. no extra tag is needed.
+ */
+public class FlowEdges {
+
+    /** source of a check without sources */
+    public static final int NONE = -1;
+
+    private int[] data = new int[8];
+
+    private int size = 0;
+
+    public void addFlow(int source, int target) {
+        add(source, target);
+    }
+
+    public void addCheck(int target, int source) {
+        add(~target, source);
+    }
+
+    private void add(int first, int second) {
+        if (2 * size + 2 > data.length) {
+            data = Arrays.copyOf(data, 2 * data.length);
+        }
+        data[2 * size] = first;
+        data[2 * size + 1] = second;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isCheck(int idx) {
+        return data[2 * idx] < 0;
+    }
+
+    /**
+     * @return checked value for checks, flow target otherwise
+     */
+    public int target(int idx) {
+        return isCheck(idx) ? ~data[2 * idx] : data[2 * idx + 1];
+    }
+
+    /**
+     * @return taint source, or NONE for checks without sources
+     */
+    public int source(int idx) {
+        return isCheck(idx) ? data[2 * idx + 1] : data[2 * idx];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(isCheck(i) ? "check " : "flow ").append(source(i)).append("->").append(target(i));
+        }
+        return sb.append("]").toString();
+    }
+}
@@ -0,0 +1,111 @@
+package tools.aqua.dse.iflow;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Flow graph over the ids of a {@link FlowDictionary}. For every node, the
+ * sets of nodes flowing into it and out of it are kept as bitsets so that
+ * reachability can be decided with word-parallel operations on bitsets.
+ */
+class FlowGraph {
+
+    private final FlowDictionary dictionary;
+
+    private final List<BitSet> predecessors = new ArrayList<>();
+
+    private final List<BitSet> successors = new ArrayList<>();
+
+    FlowGraph(FlowDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * makes sure bitsets exist for id
+     */
+    void ensure(int id) {
+        while (predecessors.size() <= id) {
+            predecessors.add(new BitSet());
+            successors.add(new BitSet());
+        }
+    }
+
+    String name(int id) {
+        return dictionary.name(id);
+    }
+
+    int size() {
+        return predecessors.size();
+    }
+
+    /**
+     * adds flow from -> to
+     *
+     * @return true if the flow was not known before
+     */
+    boolean addEdge(int from, int to) {
+        ensure(Math.max(from, to));
+        BitSet pred = predecessors.get(to);
+        if (pred.get(from)) {
+            return false;
+        }
+        pred.set(from);
+        successors.get(from).set(to);
+        return true;
+    }
+
+    BitSet predecessors(int id) {
+        ensure(id);
+        return predecessors.get(id);
+    }
+
+    /**
+     * @return seeds and all nodes reachable from them
+     */
+    BitSet descendants(BitSet seeds) {
+        BitSet visited = (BitSet) seeds.clone();
+        BitSet frontier = (BitSet) seeds.clone();
+        while (!frontier.isEmpty()) {
+            BitSet next = new BitSet(size());
+            for (int i = frontier.nextSetBit(0); i >= 0; i = frontier.nextSetBit(i + 1)) {
+                next.or(successors.get(i));
+            }
+            next.andNot(visited);
+            visited.or(next);
+            frontier = next;
+        }
+        return visited;
+    }
+
+    /**
+     * Level-synchronous backwards search from target: each step joins the
+     * predecessor sets of the whole frontier.
+     *
+     * @return true if some node in sources reaches target (or is target)
+     */
+    boolean reachesAny(BitSet sources, int target) {
+        if (sources.get(target)) {
+            return true;
+        }
+        if (target >= size()) {
+            return false;
+        }
+        BitSet visited = new BitSet(size());
+        visited.set(target);
+        BitSet frontier = (BitSet) visited.clone();
+        while (!frontier.isEmpty()) {
+            BitSet next = new BitSet(size());
+            for (int i = frontier.nextSetBit(0); i >= 0; i = frontier.nextSetBit(i + 1)) {
+                next.or(predecessors.get(i));
+            }
+            next.andNot(visited);
+            if (next.intersects(sources)) {
+                return true;
+            }
+            visited.or(next);
+            frontier = next;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package tools.aqua.dse.iflow;
+
+import tools.aqua.dse.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Selects the paths whose flows are used in the information flow analysis
+ * while traces arrive.
+ *
+ * With a fixed sample size, a reservoir of that many paths is kept and
+ * handed to the analysis on {@link #flush()}. Otherwise, each path is
+ * selected with probability iflow.fraction and its flows are passed to
+ * the analysis right away. In both modes, memory is bounded by the sample
+ * rather than by the number of explored paths.
+ */
+public class FlowSampler {
+
+    private final InformationFlowAnalysis analysis;
+
+    private final Random random;
+
+    private final double fraction;
+
+    private final int sampleSize;
+
+    private final List<FlowEdges> reservoir = new ArrayList<>();
+
+    private long seen = 0;
+
+    private long sampled = 0;
+
+    public FlowSampler(Config config, InformationFlowAnalysis analysis) {
+        this.analysis = analysis;
+        this.random = config.getRandom();
+        this.fraction = config.getFraction();
+        this.sampleSize = config.getFlowSamples();
+    }
+
+    /**
+     * offer the flows of one path to the sampler
+     *
+     * @param flows
+     * @return true if the flows were passed to the analysis immediately
+     */
+    public boolean offer(FlowEdges flows) {
+        seen++;
+        if (sampleSize > 0) {
+            if (reservoir.size() < sampleSize) {
+                reservoir.add(flows);
+            } else {
+                long j = (long) (random.nextDouble() * seen);
+                if (j < sampleSize) {
+                    reservoir.set((int) j, flows);
+                }
+            }
+            return false;
+        }
+        if (fraction < 1.0 && random.nextDouble() >= fraction) {
+            return false;
+        }
+        sampled++;
+        analysis.addFlows(flows);
+        return true;
+    }
+
+    /**
+     * pass sampled paths that are still buffered to the analysis
+     */
+    public void flush() {
+        for (FlowEdges flows : reservoir) {
+            analysis.addFlows(flows);
+        }
+        sampled += reservoir.size();
+        reservoir.clear();
+    }
+
+    public long getSeen() {
+        return seen;
+    }
+
+    public long getSampled() {
+        return sampled;
+    }
+
+    @Override
+    public String toString() {
+        return (sampleSize > 0) ? "reservoir of " + sampleSize : "fraction " + fraction;
+    }
+}
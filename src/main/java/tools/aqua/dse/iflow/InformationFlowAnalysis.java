@@ -1,143 +1,228 @@
 package tools.aqua.dse.iflow;
 
-import gov.nasa.jpf.constraints.api.ConstraintSolver;
-import gov.nasa.jpf.constraints.api.Expression;
-import gov.nasa.jpf.constraints.api.SolverContext;
-import gov.nasa.jpf.constraints.api.Variable;
-
-import gov.nasa.jpf.constraints.expressions.LogicalOperator;
-import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
-import gov.nasa.jpf.constraints.types.BuiltinTypes;
-import gov.nasa.jpf.constraints.util.ExpressionUtil;
 import tools.aqua.dse.Config;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class InformationFlowAnalysis {
 
-    private final SolverContext solverCtx;
+    private final FlowDictionary dictionary;
 
-    private final Map<String, Set<String>> flows = new HashMap<>();
+    private final FlowGraph graph;
 
-    private HashMap<String, Set<String>> taintchecks = new HashMap<>();
+    private final Map<Integer, BitSet> taintchecks = new LinkedHashMap<>();
+
+    /** checked values for which a violation has been reported */
+    private final BitSet violated = new BitSet();
+
+    /** nodes that received new incoming flows since the last online check */
+    private final BitSet touched = new BitSet();
+
+    /** checks that received new sources since the last online check */
+    private final BitSet changedChecks = new BitSet();
+
+    /** no. of workers for evaluating taint checks */
+    private final int threads;
 
     public InformationFlowAnalysis(Config config) {
-        this.solverCtx = config.getSolverContext();
+        this(config, new FlowDictionary());
+    }
+
+    public InformationFlowAnalysis(Config config, FlowDictionary dictionary) {
+        this.threads = config.getFlowThreads();
+        this.dictionary = dictionary;
+        this.graph = new FlowGraph(dictionary);
+    }
+
+    public FlowDictionary getDictionary() {
+        return dictionary;
     }
 
     public void addFlow(String flowInfo) {
         //System.out.println("-- " + flowInfo);
-        if (flowInfo.startsWith("checkFor")) {
-            addCheck(flowInfo);
-        }
-        else {
-            addIFlow(flowInfo);
-        }
+        FlowEdges edges = new FlowEdges();
+        dictionary.parse(flowInfo, edges);
+        addFlows(edges);
     }
 
-    private void addCheck(String checkInfo) {
-        String[] condition = checkInfo.trim().split("on value tainted by");
-        String var = condition[0].replace("checkFor=", "").trim();
+    public void addFlows(FlowEdges edges) {
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.isCheck(i)) {
+                addCheck(edges.target(i), edges.source(i));
+            }
+            else {
+                addIFlow(edges.source(i), edges.target(i));
+            }
+        }
+    }
 
-        Set<String> varTaint = taintchecks.get(var);
+    private void addCheck(int var, int source) {
+        BitSet varTaint = taintchecks.get(var);
         if (varTaint == null) {
-            varTaint = new HashSet<>();
+            varTaint = new BitSet();
             taintchecks.put(var, varTaint);
+            changedChecks.set(var);
         }
 
-        if (condition.length > 1) {
-            String[] taint = condition[1].trim().split(",");
-            for (String t : taint) {
-                varTaint.add(t.trim());
-            }
+        if (source != FlowEdges.NONE && !varTaint.get(source)) {
+            varTaint.set(source);
+            changedChecks.set(var);
         }
     }
 
-    private void addIFlow(String flowInfo) {
-        String[] condition = flowInfo.trim().split("tainted by");
-        String var = condition[0].replace("name=", "").trim();
-
-        Set<String> varTaint = flows.get(var);
-        if (varTaint == null) {
-            varTaint = new HashSet<>();
-            flows.put(var, varTaint);
+    private void addIFlow(int source, int var) {
+        if (graph.addEdge(source, var)) {
+            touched.set(var);
         }
+    }
 
-        if (condition.length > 1) {
-            String[] taint = condition[1].trim().split(",");
-            for (String t : taint) {
-                varTaint.add(t.trim());
+    public void listFlows() {
+        for (int v = 0; v < graph.size(); v++) {
+            BitSet taint = graph.predecessors(v);
+            if (!taint.isEmpty()) {
+                System.out.println("FLOW: " + graph.name(v) + " from " + Arrays.toString(names(taint)));
             }
         }
+        for (Map.Entry<Integer, BitSet> check : taintchecks.entrySet()) {
+            System.out.println("CHECK: " + graph.name(check.getKey()) + " from " + Arrays.toString(names(check.getValue())));
+        }
     }
 
-    public void listFlows() {
-        for (String v : flows.keySet()) {
-            System.out.println("FLOW: " + v + " from " + Arrays.toString(flows.get(v).toArray()));
-        }
-        for (String v : taintchecks.keySet()) {
-            System.out.println("CHECK: " + v + " from " + Arrays.toString(taintchecks.get(v).toArray()));
+    private String[] names(BitSet ids) {
+        String[] names = new String[ids.cardinality()];
+        int j = 0;
+        for (int i = ids.nextSetBit(0); i >= 0; i = ids.nextSetBit(i + 1)) {
+            names[j++] = graph.name(i);
         }
+        return names;
     }
 
-    public void runChecks() {
-        //listFlows();
-        Map<String, Variable> vars = new HashMap<>();
-        solverCtx.push();
-        generate(vars);
-        solverCtx.push();
-
-        for (String v : taintchecks.keySet()) {
-            System.out.println("---");
-            System.out.println(new PropositionalCompound(getOrCreate(v, vars), LogicalOperator.EQUIV, ExpressionUtil.TRUE));
-            solverCtx.add(new PropositionalCompound(getOrCreate(v, vars), LogicalOperator.EQUIV, ExpressionUtil.TRUE));
-
-            Variable check = getOrCreate("check", vars);
-            for (String val : taintchecks.get(v)) {
-                System.out.println(new PropositionalCompound(getOrCreate(val, vars), LogicalOperator.EQUIV, check));
-                solverCtx.add(new PropositionalCompound(getOrCreate(val, vars), LogicalOperator.EQUIV, check));
+    /**
+     * Online check after new flows have been added. Since flows are only
+     * ever added, a verdict can only flip from no violation to violation.
+     * Only checks that are not violated yet and that are downstream of a
+     * new flow (or got new sources) are re-evaluated.
+     *
+     * @return values for which a violation was found since the last call
+     */
+    public List<String> checkNewViolations() {
+        if (touched.isEmpty() && changedChecks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BitSet affected = graph.descendants(touched);
+        affected.or(changedChecks);
+        touched.clear();
+        changedChecks.clear();
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<Integer, BitSet> check : taintchecks.entrySet()) {
+            int v = check.getKey();
+            if (violated.get(v) || !affected.get(v)) {
+                continue;
+            }
+            if (graph.reachesAny(check.getValue(), v)) {
+                violated.set(v);
+                violations.add(graph.name(v));
+                System.out.println("[TAINT VIOLATION] INFORMATION FLOW/TAINT for " + graph.name(v) + " " + "discovered");
             }
-
-            System.out.println(new PropositionalCompound(check, LogicalOperator.XOR, getOrCreate(v, vars)));
-            solverCtx.add(new PropositionalCompound(check, LogicalOperator.XOR, getOrCreate(v, vars)));
-
-            boolean violation = (solverCtx.isSatisfiable() == ConstraintSolver.Result.UNSAT);
-            System.out.println(violation ? "[TAINT VIOLATION] INFORMATION FLOW/TAINT for " + v + " " + "discovered" : "No information flow found");
-            solverCtx.pop();
         }
+        return violations;
     }
 
-    private void generate(Map<String, Variable> vars) {
-
-        ArrayList<Expression<Boolean>> flowConstraints = new ArrayList<>();
-        for (String v : flows.keySet()) {
-            Set<String> taint = flows.get(v);
-            Variable key = getOrCreate(v, vars);
+    /**
+     * A check on a value is violated if one of the sources it is checked
+     * against reaches the value through recorded flows. Violations that
+     * {@link #checkNewViolations()} already reported are not evaluated or
+     * printed again.
+     *
+     * @return values for which a violation was found (including ones
+     *         reported before)
+     */
+    public List<String> runChecks() {
+        //listFlows();
+        List<Map.Entry<Integer, BitSet>> open = new ArrayList<>();
+        for (Map.Entry<Integer, BitSet> check : taintchecks.entrySet()) {
+            if (!violated.get(check.getKey())) {
+                open.add(check);
+            }
+        }
+        boolean[] verdicts = evaluate(open);
+        for (int i = 0; i < open.size(); i++) {
+            String v = graph.name(open.get(i).getKey());
+            if (verdicts[i]) {
+                violated.set(open.get(i).getKey());
+                System.out.println("[TAINT VIOLATION] INFORMATION FLOW/TAINT for " + v + " " + "discovered");
+            } else {
+                System.out.println("No information flow found");
+            }
+        }
 
-            Expression[] taintVars = new Expression[taint.size()];
-            int i=0;
-            for (String t : taint) {
-                taintVars[i++] = getOrCreate(t, vars);
+        List<String> violations = new ArrayList<>();
+        for (int v : taintchecks.keySet()) {
+            if (violated.get(v)) {
+                violations.add(graph.name(v));
             }
+        }
+        return violations;
+    }
 
-            for (Expression tv : taintVars) {
-                Expression flow = new PropositionalCompound(tv, LogicalOperator.IMPLY, key);
-                System.out.println(flow);
-                flowConstraints.add(flow);
+    /**
+     * Evaluates all checks without printing or recording violations
+     * (unlike {@link #runChecks()}, calls can be repeated).
+     *
+     * @return values for which a violation is found
+     */
+    public List<String> evaluateChecks() {
+        List<Map.Entry<Integer, BitSet>> checks = new ArrayList<>(taintchecks.entrySet());
+        boolean[] verdicts = evaluate(checks);
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < checks.size(); i++) {
+            if (verdicts[i]) {
+                violations.add(graph.name(checks.get(i).getKey()));
             }
         }
-        solverCtx.add(flowConstraints);
+        return violations;
     }
 
-    private int id = 0;
+    /**
+     * Checks are independent and the flow graph is not modified while they
+     * are evaluated, so they are distributed round-robin over the workers.
+     * Verdicts are stored by index and reported in check order.
+     */
+    private boolean[] evaluate(final List<Map.Entry<Integer, BitSet>> checks) {
+        final boolean[] verdicts = new boolean[checks.size()];
+        final int workers = Math.min(threads, checks.size());
+        if (workers <= 1) {
+            for (int i = 0; i < checks.size(); i++) {
+                verdicts[i] = graph.reachesAny(checks.get(i).getValue(), checks.get(i).getKey());
+            }
+            return verdicts;
+        }
 
-    private Variable getOrCreate(String name, Map<String, Variable> vars) {
-        Variable v = vars.get(name);
-        if (v == null) {
-            v = new Variable(BuiltinTypes.BOOL, "t_" + (id++));
-            vars.put(name, v);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                final int first = w;
+                futures.add(pool.submit(() -> {
+                    for (int i = first; i < checks.size(); i += workers) {
+                        verdicts[i] = graph.reachesAny(checks.get(i).getValue(), checks.get(i).getKey());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("could not evaluate taint checks", e);
+        } finally {
+            pool.shutdown();
         }
-        return v;
+        return verdicts;
     }
 
 }
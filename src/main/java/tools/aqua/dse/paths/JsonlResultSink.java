@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package tools.aqua.dse.paths;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.ValuationEntry;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes one JSON object per finished path, e.g.
+ *
+ * <pre>
+ * {"path": 3, "branches": [1, 0], "leaf": "error", "valuation": {"__int_0": 42}, "error": "java/lang/AssertionError"}
+ * </pre>
+ *
+ * Lines are flushed as they are written, so the file can be consumed
+ * while the analysis is running. "error" is null unless the path ended
+ * in an error.
+ */
+public class JsonlResultSink implements Closeable {
+
+    private final Writer out;
+
+    public JsonlResultSink(Path file) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+    public JsonlResultSink(Writer out) {
+        this.out = (out instanceof BufferedWriter) ? out : new BufferedWriter(out);
+    }
+
+    public void path(int id, List<Integer> branches, String leafType, Valuation val, String errorClass) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"path\": ").append(id).append(", \"branches\": [");
+        for (int i = 0; i < branches.size(); i++) {
+            sb.append(i > 0 ? ", " : "").append(branches.get(i));
+        }
+        sb.append("], \"leaf\": ");
+        string(sb, leafType);
+        sb.append(", \"valuation\": {");
+        if (val != null) {
+            boolean first = true;
+            for (ValuationEntry<?> e : val) {
+                sb.append(first ? "" : ", ");
+                first = false;
+                string(sb, e.getVariable().getName());
+                sb.append(": ");
+                value(sb, e.getValue());
+            }
+        }
+        sb.append("}, \"error\": ");
+        string(sb, errorClass);
+        sb.append("}\n");
+        try {
+            out.write(sb.toString());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static void value(StringBuilder sb, Object value) {
+        if (value instanceof Boolean
+                || (value instanceof Number && !nonFinite((Number) value))) {
+            sb.append(value);
+        } else {
+            string(sb, value != null ? value.toString() : null);
+        }
+    }
+
+    private static boolean nonFinite(Number n) {
+        return (n instanceof Double && !Double.isFinite(n.doubleValue()))
+                || (n instanceof Float && !Float.isFinite(n.floatValue()));
+    }
+
+    static void string(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
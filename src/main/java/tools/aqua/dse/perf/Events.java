@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package tools.aqua.dse.perf;
+
+/**
+ * Java Flight Recorder events of an analysis. Events are only emitted
+ * while a recording is running, e.g.:
+ *
+ * <pre>
+ * java -XX:StartFlightRecording=filename=dse.jfr -jar dse.jar ...
+ * </pre>
+ *
+ * The event classes are only loaded if the JVM has jdk.jfr (Java 11 or
+ * Java 8u262 and later); otherwise all methods do nothing. Events with a
+ * duration are started with begin* and committed with the handle it
+ * returns.
+ */
+public final class Events {
+
+    private static final boolean AVAILABLE = probe();
+
+    private Events() {
+    }
+
+    private static boolean probe() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @return handle for {@link #commitExecution} or null
+     */
+    public static Object beginExecution() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        ExecutionEvent e = new ExecutionEvent();
+        if (!e.isEnabled()) {
+            return null;
+        }
+        e.begin();
+        return e;
+    }
+
+    public static void commitExecution(Object handle, int valuations, int exitCode, long outputBytes) {
+        if (handle == null) {
+            return;
+        }
+        ExecutionEvent e = (ExecutionEvent) handle;
+        e.end();
+        e.valuations = valuations;
+        e.exitCode = exitCode;
+        e.outputBytes = outputBytes;
+        e.commit();
+    }
+
+    /**
+     * @return handle for {@link #commitSolverQuery} or null
+     */
+    public static Object beginSolverQuery() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        SolverQueryEvent e = new SolverQueryEvent();
+        if (!e.isEnabled()) {
+            return null;
+        }
+        e.begin();
+        return e;
+    }
+
+    public static void commitSolverQuery(Object handle, int depth, int variables, String result) {
+        if (handle == null) {
+            return;
+        }
+        SolverQueryEvent e = (SolverQueryEvent) handle;
+        e.end();
+        e.depth = depth;
+        e.variables = variables;
+        e.result = result;
+        e.commit();
+    }
+
+    public static void treeExpansion(int depth, int branches, int branchId) {
+        if (!AVAILABLE) {
+            return;
+        }
+        TreeExpansionEvent e = new TreeExpansionEvent();
+        if (e.shouldCommit()) {
+            e.depth = depth;
+            e.branches = branches;
+            e.branchId = branchId;
+            e.commit();
+        }
+    }
+
+    public static void divergence(int depth, int expectedBranch, int actualBranch) {
+        if (!AVAILABLE) {
+            return;
+        }
+        DivergenceEvent e = new DivergenceEvent();
+        if (e.shouldCommit()) {
+            e.depth = depth;
+            e.expectedBranch = expectedBranch;
+            e.actualBranch = actualBranch;
+            e.commit();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package tools.aqua.dse.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tools.aqua.dse.tree.ConstraintsTreeAnalysis;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves live metrics of a running analysis on
+ * http://127.0.0.1:port/metrics (Prometheus text format).
+ *
+ * The tree is not thread-safe, so the DSE loop calls
+ * {@link #update(ConstraintsTreeAnalysis)}, which renders a snapshot at
+ * most once per second. Requests are answered from the last snapshot plus
+ * the current heap use.
+ */
+public class MetricsServer {
+
+    private static final long INTERVAL_NS = 1_000_000_000L;
+
+    private final HttpServer server;
+
+    private final long startNs = System.nanoTime();
+
+    private long lastNs = 0;
+
+    private long lastPaths = 0;
+
+    private long lastQueries = 0;
+
+    private volatile String snapshot = "";
+
+    public MetricsServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "dse-metrics");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * renders a new snapshot if the last one is older than a second
+     */
+    public void update(ConstraintsTreeAnalysis analysis) {
+        long now = System.nanoTime();
+        if (lastNs != 0 && now - lastNs < INTERVAL_NS) {
+            return;
+        }
+        snapshot = render(analysis, now);
+    }
+
+    /**
+     * renders a new snapshot unconditionally (e.g. at the end of a run)
+     */
+    public void flush(ConstraintsTreeAnalysis analysis) {
+        snapshot = render(analysis, System.nanoTime());
+    }
+
+    private String render(ConstraintsTreeAnalysis analysis, long now) {
+        long paths = PerfStats.get(Phase.ADD_TRACE).getCount();
+        long queries = PerfStats.get(Phase.SOLVE).getCount();
+        double seconds = (now - (lastNs != 0 ? lastNs : startNs)) / 1e9;
+        double pathRate = seconds > 0 ? (paths - lastPaths) / seconds : 0;
+        double queryRate = seconds > 0 ? (queries - lastQueries) / seconds : 0;
+        lastNs = now;
+        lastPaths = paths;
+        lastQueries = queries;
+
+        Map<String, Integer> leafs = analysis.getLeafCounts();
+        int diverged = leafs.get("diverged");
+
+        StringBuilder sb = new StringBuilder();
+        metric(sb, "dse_uptime_seconds", (now - startNs) / 1e9);
+        metric(sb, "dse_paths_total", paths);
+        metric(sb, "dse_paths_per_second", pathRate);
+        metric(sb, "dse_solver_queries_total", queries);
+        metric(sb, "dse_solver_queries_per_second", queryRate);
+        metric(sb, "dse_frontier_size", analysis.getFrontierSize());
+        for (Map.Entry<String, Integer> e : leafs.entrySet()) {
+            metric(sb, "dse_leafs{type=\"" + e.getKey() + "\"}", e.getValue());
+        }
+        metric(sb, "dse_divergence_rate", paths > 0 ? (double) diverged / paths : 0);
+        return sb.toString();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Runtime rt = Runtime.getRuntime();
+        StringBuilder sb = new StringBuilder(snapshot);
+        metric(sb, "dse_heap_used_bytes", rt.totalMemory() - rt.freeMemory());
+        metric(sb, "dse_heap_max_bytes", rt.maxMemory());
+        byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void metric(StringBuilder sb, String name, long value) {
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void metric(StringBuilder sb, String name, double value) {
+        sb.append(name).append(' ').append(String.format(Locale.ROOT, "%.3f", value)).append('\n');
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.perf;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Timers for the phases of an analysis. Timing a phase costs two calls to
+ * System.nanoTime() and one histogram update:
+ *
+ * <pre>
+ * long t = PerfStats.start();
+ * ...
+ * PerfStats.stop(Phase.SOLVE, t);
+ * </pre>
+ */
+public final class PerfStats {
+
+    private static final Map<Phase, Histogram> HISTOGRAMS = new EnumMap<>(Phase.class);
+
+    static {
+        reset();
+    }
+
+    private PerfStats() {
+    }
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public static void stop(Phase phase, long start) {
+        HISTOGRAMS.get(phase).record(System.nanoTime() - start);
+    }
+
+    public static Histogram get(Phase phase) {
+        return HISTOGRAMS.get(phase);
+    }
+
+    public static synchronized void reset() {
+        for (Phase p : Phase.values()) {
+            HISTOGRAMS.put(p, new Histogram());
+        }
+    }
+
+    /**
+     * prints count, total and latency percentiles per phase
+     */
+    public static void print(PrintStream out) {
+        out.println("Performance:");
+        out.println(String.format(Locale.ROOT, "%-10s %10s %12s %10s %10s %10s %10s %10s",
+                "phase", "count", "total[ms]", "mean[us]", "p50[us]", "p90[us]", "p99[us]", "max[us]"));
+        for (Phase p : Phase.values()) {
+            Histogram h = HISTOGRAMS.get(p);
+            out.println(String.format(Locale.ROOT, "%-10s %10d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f",
+                    p.getLabel(), h.getCount(), h.getTotal() / 1e6, h.getMean() / 1e3,
+                    h.percentile(0.5) / 1e3, h.percentile(0.9) / 1e3, h.percentile(0.99) / 1e3,
+                    h.getMax() / 1e3));
+        }
+    }
+
+    /**
+     * writes the numbers of {@link #print(PrintStream)} (in ns) as json
+     */
+    public static void writeJson(Path file) throws IOException {
+        List<String> phases = new ArrayList<>();
+        for (Phase p : Phase.values()) {
+            Histogram h = HISTOGRAMS.get(p);
+            phases.add(String.format(Locale.ROOT, "    \"%s\": {\"count\": %d, \"totalNs\": %d, \"meanNs\": %.1f, "
+                            + "\"p50Ns\": %d, \"p90Ns\": %d, \"p99Ns\": %d, \"maxNs\": %d}",
+                    p.getLabel(), h.getCount(), h.getTotal(), h.getMean(),
+                    h.percentile(0.5), h.percentile(0.9), h.percentile(0.99), h.getMax()));
+        }
+        String json = "{\n  \"phases\": {\n" + String.join(",\n", phases) + "\n  }\n}\n";
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.perf;
+
+public enum Phase {
+    /** Executor.execute (one call per batch) */
+    EXECUTE("execute"),
+    /** starting the executor process */
+    SPAWN("spawn"),
+    /** executor process runtime */
+    CHILD("child"),
+    /** TraceParser.parseTrace */
+    PARSE("parse"),
+    /** adding one trace to the tree */
+    ADD_TRACE("addTrace"),
+    /** ConstraintsTree.findNext */
+    FIND_NEXT("findNext"),
+    /** solver queries of the tree */
+    SOLVE("solve"),
+    /** queries of the bounded solver to its back-end (one per bound level) */
+    BOUNDED("bounded");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package tools.aqua.dse.perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tools.aqua.dse.SolverQuery")
+@Label("Solver Query")
+@Category("DSE")
+@Description("Query for the path constraint of an open node")
+class SolverQueryEvent extends jdk.jfr.Event {
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Variables")
+    @Description("Number of variables in the model")
+    int variables;
+
+    @Label("Result")
+    String result;
+}
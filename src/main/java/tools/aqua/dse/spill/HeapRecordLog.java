@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.spill;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * record log that keeps all records on the heap
+ *
+ * @param <T> record type
+ */
+public class HeapRecordLog<T> implements RecordLog<T> {
+
+    private final List<T> records = new ArrayList<>();
+
+    @Override
+    public void append(T record) {
+        records.add(record);
+    }
+
+    @Override
+    public long size() {
+        return records.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return records.iterator();
+    }
+
+    @Override
+    public void close() {
+        records.clear();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tools.aqua.dse.spill;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * record log that spills records to a memory-mapped temporary file.
+ *
+ * The file is mapped in segments. Each record is stored as its length
+ * followed by its encoding. A negative length marks the end of a segment.
+ * Only the current segment is written to, records are decoded again when
+ * the log is iterated, so heap usage does not grow with the number of records.
+ *
+ * @param <T> record type
+ */
+public class MappedRecordLog<T> implements RecordLog<T> {
+
+    static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int END_OF_SEGMENT = -1;
+
+    private final RecordCodec<T> codec;
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final int segmentSize;
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private MappedByteBuffer tail = null;
+
+    private long mapped = 0;
+
+    private long size = 0;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    private final DataOutputStream out = new DataOutputStream(buffer);
+
+    public MappedRecordLog(RecordCodec<T> codec, Path directory) {
+        this(codec, directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MappedRecordLog(RecordCodec<T> codec, Path directory, int segmentSize) {
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        try {
+            this.file = (directory != null) ?
+                    Files.createTempFile(directory, "dse-spill", ".log") :
+                    Files.createTempFile("dse-spill", ".log");
+            this.file.toFile().deleteOnExit();
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not create spill file", e);
+        }
+    }
+
+    @Override
+    public void append(T record) {
+        buffer.reset();
+        try {
+            codec.write(record, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not encode record", e);
+        }
+        byte[] data = buffer.toByteArray();
+        ensureCapacity(Integer.BYTES + data.length);
+        tail.putInt(data.length);
+        tail.put(data);
+        size++;
+    }
+
+    private void ensureCapacity(int required) {
+        // keep room for the end-of-segment marker
+        if (tail != null && tail.remaining() >= required + Integer.BYTES) {
+            return;
+        }
+        if (tail != null) {
+            tail.putInt(END_OF_SEGMENT);
+        }
+        int length = Math.max(segmentSize, required + Integer.BYTES);
+        try {
+            tail = channel.map(FileChannel.MapMode.READ_WRITE, mapped, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not map spill file", e);
+        }
+        mapped += length;
+        segments.add(tail);
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final long count = size;
+        return new Iterator<T>() {
+
+            private long read = 0;
+
+            private int segment = 0;
+
+            private ByteBuffer current = (segments.isEmpty()) ? null : view(0);
+
+            @Override
+            public boolean hasNext() {
+                return read < count;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int length = current.getInt();
+                while (length == END_OF_SEGMENT) {
+                    current = view(++segment);
+                    length = current.getInt();
+                }
+                byte[] data = new byte[length];
+                current.get(data);
+                read++;
+                try {
+                    return codec.read(new DataInputStream(new ByteArrayInputStream(data)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("could not decode record", e);
+                }
+            }
+        };
+    }
+
+    private ByteBuffer view(int idx) {
+        ByteBuffer view = segments.get(idx).duplicate();
+        view.position(0);
+        return view;
+    }
+
+    @Override
+    public void close() {
+        segments.clear();
+        tail = null;
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Error deleting spill file: " + e.getMessage());
+        }
+    }
+}
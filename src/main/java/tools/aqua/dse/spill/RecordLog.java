@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.spill;
+
+import java.io.Closeable;
+
+/**
+ * append-only log of records that can be iterated in insertion order
+ *
+ * @param <T> record type
+ */
+public interface RecordLog<T> extends Iterable<T>, Closeable {
+
+    void append(T record);
+
+    long size();
+
+    @Override
+    void close();
+}
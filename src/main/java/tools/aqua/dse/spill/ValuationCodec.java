@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tools.aqua.dse.spill;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.ValuationEntry;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import gov.nasa.jpf.constraints.types.Type;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * encodes valuations over the value types seeded by the executor
+ */
+public class ValuationCodec implements RecordCodec<Valuation> {
+
+    private static final byte BOOL = 0;
+    private static final byte BYTE = 1;
+    private static final byte CHAR = 2;
+    private static final byte SHORT = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte STRING = 8;
+    private static final byte INTEGER = 9;
+    private static final byte DECIMAL = 10;
+
+    @Override
+    public void write(Valuation val, DataOutput out) throws IOException {
+        out.writeInt(val.entries().size());
+        for (ValuationEntry<?> e : val.entries()) {
+            writeString(e.getVariable().getName(), out);
+            Object value = e.getValue();
+            if (value instanceof Boolean) {
+                out.writeByte(BOOL);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Byte) {
+                out.writeByte(BYTE);
+                out.writeByte((Byte) value);
+            } else if (value instanceof Character) {
+                out.writeByte(CHAR);
+                out.writeChar((Character) value);
+            } else if (value instanceof Short) {
+                out.writeByte(SHORT);
+                out.writeShort((Short) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INT);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Float) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                writeString((String) value, out);
+            } else if (value instanceof BigInteger) {
+                out.writeByte(INTEGER);
+                writeString(value.toString(), out);
+            } else if (value instanceof BigDecimal) {
+                out.writeByte(DECIMAL);
+                writeString(value.toString(), out);
+            } else {
+                throw new IllegalArgumentException("unsupported value type: " + value.getClass());
+            }
+        }
+    }
+
+    @Override
+    public Valuation read(DataInput in) throws IOException {
+        Valuation val = new Valuation();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            byte tag = in.readByte();
+            switch (tag) {
+                case BOOL:
+                    put(val, BuiltinTypes.BOOL, name, in.readBoolean());
+                    break;
+                case BYTE:
+                    put(val, BuiltinTypes.SINT8, name, in.readByte());
+                    break;
+                case CHAR:
+                    put(val, BuiltinTypes.UINT16, name, in.readChar());
+                    break;
+                case SHORT:
+                    put(val, BuiltinTypes.SINT16, name, in.readShort());
+                    break;
+                case INT:
+                    put(val, BuiltinTypes.SINT32, name, in.readInt());
+                    break;
+                case LONG:
+                    put(val, BuiltinTypes.SINT64, name, in.readLong());
+                    break;
+                case FLOAT:
+                    put(val, BuiltinTypes.FLOAT, name, in.readFloat());
+                    break;
+                case DOUBLE:
+                    put(val, BuiltinTypes.DOUBLE, name, in.readDouble());
+                    break;
+                case STRING:
+                    put(val, BuiltinTypes.STRING, name, readString(in));
+                    break;
+                case INTEGER:
+                    put(val, BuiltinTypes.INTEGER, name, new BigInteger(readString(in)));
+                    break;
+                case DECIMAL:
+                    put(val, BuiltinTypes.DECIMAL, name, new BigDecimal(readString(in)));
+                    break;
+                default:
+                    throw new IOException("unsupported value tag: " + tag);
+            }
+        }
+        return val;
+    }
+
+    private static <E> void put(Valuation val, Type<E> type, String name, E value) {
+        val.setValue(Variable.create(type, name), value);
+    }
+
+    static void writeString(String s, DataOutput out) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.synthetic;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.LogicalOperator;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.NumericOperator;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import tools.aqua.dse.channel.MappedChannel;
+import tools.aqua.dse.trace.BinaryTraceWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Stand-in executor that runs a {@link SyntheticProgram} instead of an
+ * analyzed program. It understands the executor protocol of DSE
+ * (concolic.ints, concolic.batch, concolic.channel and concolic.prefix)
+ * and prints traces of 32 bit decisions. The program is configured by
+ * synthetic.* system properties; synthetic.binary=true writes binary
+ * traces into the channel.
+ */
+public class SyntheticExecutor {
+
+    private final SyntheticProgram program;
+
+    private final boolean binary;
+
+    private final PrintStream out;
+
+    private final List<Variable<Integer>> vars = new ArrayList<>();
+
+    public SyntheticExecutor(Properties props, PrintStream out) {
+        this.program = new SyntheticProgram(props);
+        this.binary = Boolean.parseBoolean(props.getProperty("synthetic.binary", "false"));
+        this.out = out;
+        for (int i = 0; i < program.getDepth(); i++) {
+            vars.add(Variable.create(BuiltinTypes.SINT32, "__int_" + i));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Properties props = System.getProperties();
+        SyntheticExecutor executor = new SyntheticExecutor(props, System.out);
+        boolean complete;
+        if (props.containsKey("concolic.channel")) {
+            complete = executor.runChannel(props.getProperty("concolic.channel"));
+        } else if (props.containsKey("concolic.batch")) {
+            complete = executor.runBatch(props.getProperty("concolic.batch"));
+        } else {
+            complete = executor.run(props, null);
+        }
+        System.out.flush();
+        System.exit(complete ? 0 : 1);
+    }
+
+    /**
+     * @return false if the execution crashed
+     */
+    boolean run(Properties props, MappedChannel channel) throws IOException {
+        int[] inputs = parseInts(props.getProperty("concolic.ints", ""));
+        List<Integer> prefix = parsePrefix(props.getProperty("concolic.prefix", ""));
+        return emit(program.execute(inputs), prefix, channel);
+    }
+
+    boolean runBatch(String file) throws IOException {
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            Properties props = new Properties();
+            for (String p : line.split("\t")) {
+                int eq = p.indexOf('=');
+                if (eq > 0) {
+                    props.setProperty(p.substring(0, eq), p.substring(eq + 1));
+                }
+            }
+            if (!run(props, null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean runChannel(String file) throws IOException {
+        try (MappedChannel channel = MappedChannel.open(Paths.get(file))) {
+            List<Valuation> vals = channel.readValuations();
+            List<List<Integer>> prefixes = channel.readPrefixes();
+            for (int i = 0; i < vals.size(); i++) {
+                int[] inputs = new int[program.getDepth()];
+                for (int j = 0; j < inputs.length; j++) {
+                    Integer value = vals.get(i).getValue(vars.get(j));
+                    inputs[j] = value != null ? value : 0;
+                }
+                List<Integer> prefix = prefixes != null ? prefixes.get(i) : Collections.<Integer>emptyList();
+                if (!emit(program.execute(inputs), prefix, channel)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the trace of e. Decisions matching the prefix (which ends at
+     * the target's parent) are reported by branch id only, up to the first
+     * mismatch. All later decisions, including the one into the target,
+     * are reported in full.
+     *
+     * @return false if the execution crashed
+     */
+    private boolean emit(SyntheticProgram.Execution e, List<Integer> prefix, MappedChannel channel) throws IOException {
+        BinaryTraceWriter writer = new BinaryTraceWriter();
+        for (int i = 0; i < program.getDepth(); i++) {
+            line("[DECLARE] (declare-fun __int_" + i + " () (_ BitVec 32))", channel);
+        }
+        boolean elide = true;
+        for (SyntheticProgram.Step s : e.steps) {
+            for (int i = 0; i < program.getNoise(); i++) {
+                out.println("synthetic: level " + s.level + ", noise " + i);
+            }
+            elide = elide && s.level < prefix.size() && prefix.get(s.level) == s.branch;
+            if (elide) {
+                line("[BRANCH] branchCount=" + s.branches + ", branchId=" + s.branch, channel);
+                if (binary) {
+                    writer.branch(s.branches, s.branch);
+                }
+            } else {
+                line("[DECISION] (assert " + condition(s) + ") // branchCount=" + s.branches + ", branchId=" + s.branch, channel);
+                if (binary) {
+                    writer.decision(expression(s), s.branches, s.branch);
+                }
+            }
+        }
+        if (e.crashed) {
+            return false;
+        }
+        line("[ENDOFTRACE]", channel);
+        if (channel != null && binary) {
+            channel.appendRecord(MappedChannel.TRACE, writer.finish());
+        }
+        return true;
+    }
+
+    private void line(String line, MappedChannel channel) throws IOException {
+        if (channel == null) {
+            out.println(line);
+        } else if (!binary) {
+            channel.appendLine(line);
+        }
+    }
+
+    private String condition(SyntheticProgram.Step s) {
+        String subject = "__int_" + s.level;
+        int partner = program.partner(s.level);
+        if (partner >= 0) {
+            subject = "(bvadd " + subject + " __int_" + partner + ")";
+        }
+        String lower = s.lower != null ? "(bvsle " + hex(s.lower) + " " + subject + ")" : null;
+        String upper = s.upper != null ? "(bvslt " + subject + " " + hex(s.upper) + ")" : null;
+        if (lower != null && upper != null) {
+            return "(and " + lower + " " + upper + ")";
+        }
+        return lower != null ? lower : upper;
+    }
+
+    private Expression<Boolean> expression(SyntheticProgram.Step s) {
+        Expression<Integer> subject = vars.get(s.level);
+        int partner = program.partner(s.level);
+        if (partner >= 0) {
+            subject = new NumericCompound<>(subject, NumericOperator.PLUS, vars.get(partner));
+        }
+        Expression<Boolean> lower = s.lower != null ? new NumericBooleanExpression(
+                Constant.create(BuiltinTypes.SINT32, s.lower), NumericComparator.LE, subject) : null;
+        Expression<Boolean> upper = s.upper != null ? new NumericBooleanExpression(
+                subject, NumericComparator.LT, Constant.create(BuiltinTypes.SINT32, s.upper)) : null;
+        if (lower != null && upper != null) {
+            return new PropositionalCompound(lower, LogicalOperator.AND, upper);
+        }
+        return lower != null ? lower : upper;
+    }
+
+    private static String hex(int value) {
+        return String.format("#x%08x", value);
+    }
+
+    private static int[] parseInts(String param) {
+        boolean b64 = param.startsWith("[b64]");
+        if (b64) {
+            param = param.substring("[b64]".length());
+        }
+        if (param.isEmpty()) {
+            return new int[0];
+        }
+        String[] values = param.split(",");
+        int[] ints = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            String v = b64 ? new String(Base64.getDecoder().decode(values[i]), StandardCharsets.UTF_8) : values[i];
+            ints[i] = Integer.parseInt(v.trim());
+        }
+        return ints;
+    }
+
+    private static List<Integer> parsePrefix(String param) {
+        List<Integer> prefix = new ArrayList<>();
+        for (String id : param.split(",")) {
+            if (!id.trim().isEmpty()) {
+                prefix.add(Integer.parseInt(id.trim()));
+            }
+        }
+        return prefix;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.synthetic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * A branching program that is generated from a seed. At level i, the
+ * program branches on x_i (shape compare) or x_i + x_(i+1) (shape linear)
+ * against fanout-1 thresholds, which are drawn from the seed and the
+ * branches taken so far. The program has one int input per level.
+ *
+ * Divergence: at a share of the nodes, the branch is chosen by a hash of
+ * the input instead of the thresholds, while the reported condition is
+ * the one of the chosen branch. Crash: a share of the executions stops
+ * at a random level.
+ */
+public class SyntheticProgram {
+
+    public enum Shape { COMPARE, LINEAR }
+
+    /** a decision taken in an execution, lower/upper are null if unbounded */
+    public static class Step {
+        public final int level;
+        public final int branches;
+        public final int branch;
+        public final Integer lower;
+        public final Integer upper;
+
+        Step(int level, int branches, int branch, Integer lower, Integer upper) {
+            this.level = level;
+            this.branches = branches;
+            this.branch = branch;
+            this.lower = lower;
+            this.upper = upper;
+        }
+    }
+
+    public static class Execution {
+        public final List<Step> steps = new ArrayList<>();
+        public boolean crashed;
+    }
+
+    private static final int RANGE = 1000;
+
+    private final int depth;
+    private final int fanout;
+    private final Shape shape;
+    private final double divergence;
+    private final double crash;
+    private final int noise;
+    private final long seed;
+
+    public SyntheticProgram(Properties props) {
+        this.depth = Integer.parseInt(props.getProperty("synthetic.depth", "10"));
+        this.fanout = Integer.parseInt(props.getProperty("synthetic.fanout", "2"));
+        this.shape = Shape.valueOf(props.getProperty("synthetic.shape", "compare").trim().toUpperCase());
+        this.divergence = Double.parseDouble(props.getProperty("synthetic.divergence", "0"));
+        this.crash = Double.parseDouble(props.getProperty("synthetic.crash", "0"));
+        this.noise = Integer.parseInt(props.getProperty("synthetic.noise", "0"));
+        this.seed = Long.parseLong(props.getProperty("synthetic.seed", "0"));
+        if (depth < 1 || fanout < 2) {
+            throw new IllegalArgumentException("synthetic.depth has to be >= 1 and synthetic.fanout >= 2");
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * @return no. of lines of output noise per decision
+     */
+    public int getNoise() {
+        return noise;
+    }
+
+    /**
+     * @return input used in the condition at level (besides x_level) or -1
+     */
+    public int partner(int level) {
+        return shape == Shape.LINEAR ? (level + 1) % depth : -1;
+    }
+
+    public Execution execute(int[] inputs) {
+        Execution e = new Execution();
+        Random crashes = new Random(mix(seed, Arrays.hashCode(inputs)));
+        int crashAt = crashes.nextDouble() < crash ? crashes.nextInt(depth + 1) : -1;
+
+        long node = seed;
+        for (int level = 0; level < depth; level++) {
+            if (level == crashAt) {
+                e.crashed = true;
+                return e;
+            }
+            Random random = new Random(node);
+            int[] thresholds = new int[fanout - 1];
+            for (int i = 0; i < thresholds.length; i++) {
+                thresholds[i] = random.nextInt(2 * RANGE + 1) - RANGE;
+            }
+            Arrays.sort(thresholds);
+
+            int value = subject(inputs, level);
+            int branch;
+            if (random.nextDouble() < divergence) {
+                branch = Math.floorMod((int) mix(node, value), fanout);
+            } else {
+                branch = 0;
+                while (branch < thresholds.length && value >= thresholds[branch]) {
+                    branch++;
+                }
+            }
+            e.steps.add(new Step(level, fanout, branch,
+                    branch > 0 ? thresholds[branch - 1] : null,
+                    branch < thresholds.length ? thresholds[branch] : null));
+            node = mix(node, branch + 1);
+        }
+        e.crashed = (crashAt == depth);
+        return e;
+    }
+
+    private int subject(int[] inputs, int level) {
+        int value = input(inputs, level);
+        return shape == Shape.LINEAR ? value + input(inputs, partner(level)) : value;
+    }
+
+    private static int input(int[] inputs, int i) {
+        return i < inputs.length ? inputs[i] : 0;
+    }
+
+    private static long mix(long a, long b) {
+        long h = (a ^ (b * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 29);
+    }
+}
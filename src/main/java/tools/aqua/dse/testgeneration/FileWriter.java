@@ -3,9 +3,19 @@ package tools.aqua.dse.testgeneration;
 import com.github.javaparser.ast.CompilationUnit;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public interface FileWriter {
     void saveTestClass(
             @NotNull final String className,
             @NotNull final CompilationUnit compilationUnit
     );
+
+    /**
+     * @return file for the test class (parent directories are created)
+     */
+    @NotNull Path prepareTestClassFile(
+            @NotNull final String className
+    ) throws IOException;
 }
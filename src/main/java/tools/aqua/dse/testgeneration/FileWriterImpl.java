@@ -34,14 +34,7 @@ public class FileWriterImpl implements FileWriter {
         final DefaultPrinterConfiguration printerConfiguration = new DefaultPrinterConfiguration();
         final DefaultPrettyPrinter prettyPrinter = new DefaultPrettyPrinter(printerConfiguration);
 
-        // Use the "project.root" system property if available; otherwise fall back to user.dir.
-        String baseDir = System.getProperty("project.root", System.getProperty("user.dir"));
-        logger.info("Base directory for saving test class: " + baseDir);
-
-        // Build an absolute path by combining the base directory with the relative tests directory.
-        final Path testsDir = Paths.get(baseDir, RELATIVE_TESTS_DIRECTORY);
-        // Convert package dots to directory separators and append the .java extension.
-        final Path filePath = testsDir.resolve(className.replace('.', '/') + JAVA_FILE_ENDING);
+        final Path filePath = testClassPath(className);
 
         try {
             // Create all missing parent directories.
@@ -58,4 +51,27 @@ public class FileWriterImpl implements FileWriter {
             e.printStackTrace();
         }
     }
+
+    @Override
+    public @NotNull Path prepareTestClassFile(
+            @NotNull final String className
+    ) throws IOException {
+        requireNonNull(className);
+
+        final Path filePath = testClassPath(className);
+        Files.createDirectories(filePath.getParent());
+        return filePath;
+    }
+
+    @NotNull
+    private Path testClassPath(@NotNull final String className) {
+        // Use the "project.root" system property if available; otherwise fall back to user.dir.
+        String baseDir = System.getProperty("project.root", System.getProperty("user.dir"));
+        logger.info("Base directory for saving test class: " + baseDir);
+
+        // Build an absolute path by combining the base directory with the relative tests directory.
+        final Path testsDir = Paths.get(baseDir, RELATIVE_TESTS_DIRECTORY);
+        // Convert package dots to directory separators and append the .java extension.
+        return testsDir.resolve(className.replace('.', '/') + JAVA_FILE_ENDING);
+    }
 }
@@ -0,0 +1,17 @@
+package tools.aqua.dse.testgeneration;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Writes test methods while exploring. After each added test, the file
+ * on disk is a complete test class.
+ */
+public interface StreamingTestGenerator {
+
+    void beginTestClass();
+
+    void addTest(@NotNull final Valuation valuation);
+
+    void finishTestClass();
+}
@@ -10,6 +10,12 @@ public interface TemplateRenderer {
             @NotNull final List<String> methods
     );
 
+    @NotNull String renderTestClassHeader(
+            @NotNull final String className
+    );
+
+    @NotNull String renderTestClassFooter();
+
     @NotNull String renderTestMethod(
             @NotNull final String methodName,
             @NotNull final String bodyString
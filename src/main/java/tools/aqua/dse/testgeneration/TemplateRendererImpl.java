@@ -11,6 +11,8 @@ import java.util.List;
 public class TemplateRendererImpl implements TemplateRenderer {
 
     private static final String TEMPLATE_CLASS_IDENTIFIER = "testClass";
+    private static final String TEMPLATE_CLASS_HEADER_IDENTIFIER = "testClassHeader";
+    private static final String TEMPLATE_CLASS_FOOTER_IDENTIFIER = "testClassFooter";
     private static final String TEMPLATE_METHOD_IDENTIFIER = "testMethod";
     private static final String TEMPLATE_PLACEHOLDER_CLASS_NAME = "className";
     private static final String TEMPLATE_PLACEHOLDER_METHODS = "methods";
@@ -34,6 +36,20 @@ public class TemplateRendererImpl implements TemplateRenderer {
         return testClassTemplate.render();
     }
 
+    @Override
+    public @NotNull String renderTestClassHeader(
+            @NotNull final String className
+    ) {
+        final ST headerTemplate = templates.getInstanceOf(TEMPLATE_CLASS_HEADER_IDENTIFIER);
+        headerTemplate.add(TEMPLATE_PLACEHOLDER_CLASS_NAME, className);
+        return headerTemplate.render();
+    }
+
+    @Override
+    public @NotNull String renderTestClassFooter() {
+        return templates.getInstanceOf(TEMPLATE_CLASS_FOOTER_IDENTIFIER).render();
+    }
+
     @Override
     public @NotNull String renderTestMethod(
             @NotNull final String methodName,
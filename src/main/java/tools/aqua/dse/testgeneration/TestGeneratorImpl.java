@@ -11,6 +11,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import tools.aqua.dse.Config;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -18,7 +24,7 @@ import java.util.stream.Collectors;
 import static java.util.Objects.requireNonNull;
 
 @Slf4j
-public class TestGeneratorImpl implements TestGenerator {
+public class TestGeneratorImpl implements TestGenerator, StreamingTestGenerator {
 
     private final Logger logger = Logger.getLogger("jdart");
 
@@ -35,6 +41,11 @@ public class TestGeneratorImpl implements TestGenerator {
     private final TemplateRenderer templateRenderer;
     private final VerifierMockGenerator verifierMockGenerator;
 
+    // streaming: test class file and position of its footer
+    private FileChannel testClassChannel;
+    private long footerPosition;
+    private byte[] footer;
+
     public TestGeneratorImpl(
             @NotNull final Config config
     ) {
@@ -62,7 +73,7 @@ public class TestGeneratorImpl implements TestGenerator {
     }
 
     @Override
-    public void generateTestsBasedOnValuations(@NotNull final List<Valuation> valuations) {
+    public void generateTestsBasedOnValuations(@NotNull final Iterable<Valuation> valuations) {
         log.info("Generating test class for '{}{}' based on valuations -------", this.originalClassName,
                  JAVA_FILE_ENDING
         );
@@ -80,10 +91,10 @@ public class TestGeneratorImpl implements TestGenerator {
         });
 
         final String className = this.originalClassName + TEST_CLASS_NAME_SUFFIX;
-        final List<String> methods = valuations
-                .stream()
-                .map(this::generateTestMethod)
-                .collect(Collectors.toList());
+        final List<String> methods = new ArrayList<>();
+        for (Valuation valuation : valuations) {
+            methods.add(generateTestMethod(valuation));
+        }
 
         final String generatedCode = this.templateRenderer.renderTestClass(className, methods);
         log.debug(String.format("Generated Code:%n%s", generatedCode));
@@ -99,6 +110,73 @@ public class TestGeneratorImpl implements TestGenerator {
         log.info("DONE -----------------------------");
     }
 
+    @Override
+    public void beginTestClass() {
+        final String className = this.originalClassName + TEST_CLASS_NAME_SUFFIX;
+        log.info("Streaming test class for '{}{}' -------", this.originalClassName, JAVA_FILE_ENDING);
+        try {
+            final Path filePath = this.fileWriter.prepareTestClassFile(className);
+            this.testClassChannel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            final byte[] header = this.templateRenderer.renderTestClassHeader(className)
+                    .getBytes(StandardCharsets.UTF_8);
+            this.footer = this.templateRenderer.renderTestClassFooter().getBytes(StandardCharsets.UTF_8);
+            this.footerPosition = header.length;
+            write(0, header, this.footer);
+            log.info("Writing tests to {}", filePath.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Could not create test class " + className, e);
+            closeTestClass();
+        }
+    }
+
+    /**
+     * writes the test method over the footer and appends the footer again
+     */
+    @Override
+    public void addTest(@NotNull final Valuation valuation) {
+        requireNonNull(valuation);
+        if (this.testClassChannel == null) {
+            return;
+        }
+        final byte[] method = (generateTestMethod(valuation) + "\n\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            write(this.footerPosition, method, this.footer);
+            this.footerPosition += method.length;
+        } catch (IOException e) {
+            log.error("Could not write test method", e);
+            closeTestClass();
+        }
+    }
+
+    @Override
+    public void finishTestClass() {
+        closeTestClass();
+        log.info("DONE ({} tests) -----------------------------", this.valuationNo);
+    }
+
+    private void write(final long position, final byte[] data, final byte[] footer) throws IOException {
+        final byte[] bytes = Arrays.copyOf(data, data.length + footer.length);
+        System.arraycopy(footer, 0, bytes, data.length, footer.length);
+        final ByteBuffer buf = ByteBuffer.wrap(bytes);
+        long pos = position;
+        while (buf.hasRemaining()) {
+            pos += this.testClassChannel.write(buf, pos);
+        }
+    }
+
+    private void closeTestClass() {
+        if (this.testClassChannel == null) {
+            return;
+        }
+        try {
+            this.testClassChannel.close();
+        } catch (IOException e) {
+            log.error("Could not close test class", e);
+        }
+        this.testClassChannel = null;
+    }
+
     @NotNull
     private String generateTestMethod(@NotNull final Valuation valuation) {
         requireNonNull(valuation);
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.trace;
+
+import gov.nasa.jpf.constraints.expressions.BitvectorOperator;
+import gov.nasa.jpf.constraints.expressions.LogicalOperator;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.expressions.NumericOperator;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import gov.nasa.jpf.constraints.types.Type;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and helpers shared by {@link BinaryTraceReader} and
+ * {@link BinaryTraceWriter}. Operators are encoded by their index in the
+ * arrays below (not by enum ordinal) so that the format does not change
+ * with the constraints library.
+ */
+final class BinaryTrace {
+
+    static final int MAGIC = 0x44534554; // "DSET"
+
+    static final short VERSION = 1;
+
+    // records
+    static final byte END = 0;
+    static final byte DECISION = 1;
+    static final byte ASSUMPTION = 2;
+    static final byte ERROR = 3;
+    static final byte ABORT = 4;
+    static final byte FLOW = 5;
+    static final byte TAINTCHECK = 6;
+    static final byte TAINT_VIOLATION = 7;
+    static final byte WITNESS = 8;
+    static final byte BRANCH = 9;
+
+    // expression nodes
+    static final byte REF = 0;
+    static final byte VAR = 1;
+    static final byte CONST = 2;
+    static final byte NOT = 3;
+    static final byte LOGICAL = 4;
+    static final byte COMPARE = 5;
+    static final byte ARITH = 6;
+    static final byte MINUS = 7;
+    static final byte BITWISE = 8;
+    static final byte BITNOT = 9;
+    static final byte ITE = 10;
+    static final byte CAST = 11;
+
+    /** type tags, same as in spill.ValuationCodec */
+    static final Type<?>[] TYPES = {
+        BuiltinTypes.BOOL, BuiltinTypes.SINT8, BuiltinTypes.UINT16,
+        BuiltinTypes.SINT16, BuiltinTypes.SINT32, BuiltinTypes.SINT64,
+        BuiltinTypes.FLOAT, BuiltinTypes.DOUBLE, BuiltinTypes.STRING,
+        BuiltinTypes.INTEGER, BuiltinTypes.DECIMAL
+    };
+
+    static final LogicalOperator[] LOGICAL_OPS = {
+        LogicalOperator.AND, LogicalOperator.OR, LogicalOperator.IMPLY,
+        LogicalOperator.EQUIV, LogicalOperator.XOR
+    };
+
+    static final NumericComparator[] COMPARATORS = {
+        NumericComparator.EQ, NumericComparator.NE, NumericComparator.LT,
+        NumericComparator.LE, NumericComparator.GT, NumericComparator.GE
+    };
+
+    static final NumericOperator[] ARITH_OPS = {
+        NumericOperator.PLUS, NumericOperator.MINUS, NumericOperator.MUL,
+        NumericOperator.DIV, NumericOperator.REM
+    };
+
+    static final BitvectorOperator[] BITWISE_OPS = {
+        BitvectorOperator.AND, BitvectorOperator.OR, BitvectorOperator.XOR,
+        BitvectorOperator.SHIFTL, BitvectorOperator.SHIFTR, BitvectorOperator.SHIFTUR
+    };
+
+    private BinaryTrace() {
+    }
+
+    static <T> int indexOf(T[] values, Object value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("not supported in binary traces: " + value);
+    }
+
+    static <T> T get(T[] values, int index) throws IOException {
+        if (index < 0 || index >= values.length) {
+            throw new IOException("invalid code in binary trace: " + index);
+        }
+        return values[index];
+    }
+
+    static void writeValue(Type<?> type, Object value, DataOutput out) throws IOException {
+        int tag = indexOf(TYPES, type);
+        out.writeByte(tag);
+        switch (tag) {
+            case 0: out.writeBoolean((Boolean) value); break;
+            case 1: out.writeByte((Byte) value); break;
+            case 2: out.writeChar((Character) value); break;
+            case 3: out.writeShort((Short) value); break;
+            case 4: out.writeInt((Integer) value); break;
+            case 5: out.writeLong((Long) value); break;
+            case 6: out.writeFloat((Float) value); break;
+            case 7: out.writeDouble((Double) value); break;
+            default: writeString(value.toString(), out);
+        }
+    }
+
+    static Object readValue(Type<?> type, DataInput in) throws IOException {
+        switch (indexOf(TYPES, type)) {
+            case 0: return in.readBoolean();
+            case 1: return in.readByte();
+            case 2: return in.readChar();
+            case 3: return in.readShort();
+            case 4: return in.readInt();
+            case 5: return in.readLong();
+            case 6: return in.readFloat();
+            case 7: return in.readDouble();
+            case 8: return readString(in);
+            case 9: return new BigInteger(readString(in));
+            default: return new BigDecimal(readString(in));
+        }
+    }
+
+    static void writeString(String s, DataOutput out) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.trace;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.BitvectorExpression;
+import gov.nasa.jpf.constraints.expressions.BitvectorNegation;
+import gov.nasa.jpf.constraints.expressions.CastExpression;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.IfThenElse;
+import gov.nasa.jpf.constraints.expressions.Negation;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.expressions.UnaryMinus;
+import gov.nasa.jpf.constraints.types.Type;
+import tools.aqua.dse.iflow.FlowDictionary;
+import tools.aqua.dse.iflow.FlowEdges;
+import tools.aqua.dse.paths.PathResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static tools.aqua.dse.trace.BinaryTrace.*;
+
+/**
+ * Reads traces written by {@link BinaryTraceWriter}. Expressions are built
+ * directly from the encoded DAG, without a round-trip through SMT-LIB.
+ */
+public class BinaryTraceReader {
+
+    private final DataInputStream in;
+
+    private final List<Expression<?>> nodes = new ArrayList<>();
+
+    private final List<Variable<?>> vars = new ArrayList<>();
+
+    private BinaryTraceReader(byte[] data) {
+        this.in = new DataInputStream(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * @return trace or null if the trace is incomplete (like {@link TraceParser})
+     */
+    public static Trace read(byte[] data, Valuation vals, FlowDictionary dictionary) throws IOException {
+        return new BinaryTraceReader(data).read(vals, dictionary);
+    }
+
+    private Trace read(Valuation vals, FlowDictionary dictionary) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a binary trace");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("unsupported binary trace version: " + version);
+        }
+
+        List<Decision> decisions = new LinkedList<>();
+        List<WitnessAssumption> witness = new LinkedList<>();
+        List<String> taintViolations = new LinkedList<>();
+        FlowEdges flows = new FlowEdges();
+        PathResult result = PathResult.ok(vals);
+        try {
+            while (true) {
+                byte record = in.readByte();
+                switch (record) {
+                    case END:
+                        result.setTaintViolations(taintViolations);
+                        return new Trace(decisions, witness, flows, result);
+                    case DECISION: {
+                        Expression<Boolean> condition = readCondition();
+                        int branches = in.readInt();
+                        decisions.add(new Decision(condition, branches, in.readInt()));
+                        break;
+                    }
+                    case BRANCH: {
+                        int branches = in.readInt();
+                        decisions.add(new Decision(null, branches, in.readInt()));
+                        break;
+                    }
+                    case ASSUMPTION: {
+                        Expression<Boolean> condition = readCondition();
+                        decisions.add(new Decision(condition, 2, in.readBoolean() ? 1 : 0, true));
+                        break;
+                    }
+                    case ERROR:
+                        result = PathResult.error(vals, readString(in), "");
+                        break;
+                    case ABORT:
+                        result = PathResult.abort(vals, readString(in));
+                        break;
+                    case FLOW:
+                    case TAINTCHECK:
+                        dictionary.parse(readString(in), flows);
+                        break;
+                    case TAINT_VIOLATION: {
+                        String violation = readString(in);
+                        System.out.println("[TAINT VIOLATION] " + violation);
+                        taintViolations.add(violation);
+                        break;
+                    }
+                    case WITNESS: {
+                        String clazz = readString(in);
+                        String scope = readString(in);
+                        int line = in.readInt();
+                        witness.add(new WitnessAssumption(readString(in), clazz, scope, line));
+                        break;
+                    }
+                    default:
+                        throw new IOException("invalid record in binary trace: " + record);
+                }
+            }
+        } catch (EOFException e) {
+            // trace not terminated
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Expression<Boolean> readCondition() throws IOException {
+        return (Expression<Boolean>) readExpression();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Expression<?> readExpression() throws IOException {
+        byte op = in.readByte();
+        Expression e;
+        switch (op) {
+            case REF: {
+                int ref = in.readInt();
+                if (ref < 0 || ref >= nodes.size()) {
+                    throw new IOException("invalid reference in binary trace: " + ref);
+                }
+                return nodes.get(ref);
+            }
+            case VAR: {
+                int id = in.readInt();
+                if (id == vars.size()) {
+                    Type<?> type = get(TYPES, in.readByte());
+                    vars.add(Variable.create(type, readString(in)));
+                } else if (id < 0 || id > vars.size()) {
+                    throw new IOException("invalid variable in binary trace: " + id);
+                }
+                e = vars.get(id);
+                break;
+            }
+            case CONST: {
+                Type type = get(TYPES, in.readByte());
+                e = Constant.create(type, readValue(type, in));
+                break;
+            }
+            case NOT:
+                e = new Negation((Expression<Boolean>) readExpression());
+                break;
+            case LOGICAL: {
+                int operator = in.readByte();
+                e = new PropositionalCompound((Expression<Boolean>) readExpression(),
+                        get(LOGICAL_OPS, operator), (Expression<Boolean>) readExpression());
+                break;
+            }
+            case COMPARE: {
+                int comparator = in.readByte();
+                e = new NumericBooleanExpression(readExpression(), get(COMPARATORS, comparator), readExpression());
+                break;
+            }
+            case ARITH: {
+                int operator = in.readByte();
+                e = new NumericCompound(readExpression(), get(ARITH_OPS, operator), readExpression());
+                break;
+            }
+            case MINUS:
+                e = UnaryMinus.create(readExpression());
+                break;
+            case BITWISE: {
+                int operator = in.readByte();
+                e = BitvectorExpression.create(readExpression(), get(BITWISE_OPS, operator), readExpression());
+                break;
+            }
+            case BITNOT:
+                e = BitvectorNegation.create(readExpression());
+                break;
+            case ITE:
+                e = new IfThenElse((Expression<Boolean>) readExpression(), readExpression(), readExpression());
+                break;
+            case CAST: {
+                Type type = get(TYPES, in.readByte());
+                e = CastExpression.create(readExpression(), type);
+                break;
+            }
+            default:
+                throw new IOException("invalid expression in binary trace: " + op);
+        }
+        nodes.add(e);
+        return e;
+    }
+}
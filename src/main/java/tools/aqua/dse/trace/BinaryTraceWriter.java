@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.trace;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.BitvectorExpression;
+import gov.nasa.jpf.constraints.expressions.BitvectorNegation;
+import gov.nasa.jpf.constraints.expressions.CastExpression;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.IfThenElse;
+import gov.nasa.jpf.constraints.expressions.Negation;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.expressions.UnaryMinus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static tools.aqua.dse.trace.BinaryTrace.*;
+
+/**
+ * Writes one trace in the binary trace format (for executors written in
+ * Java and for tests). Expressions are written in prefix order; every
+ * node that has been written before (same instance) is replaced by a
+ * reference to its number, so shared subterms are written once per trace.
+ * Nodes are numbered in the order they are completed. Variables are
+ * numbered in order of appearance and declared (type, name) on first use.
+ */
+public class BinaryTraceWriter {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    private final Map<Expression<?>, Integer> nodes = new IdentityHashMap<>();
+
+    private final Map<String, Integer> vars = new HashMap<>();
+
+    public BinaryTraceWriter() {
+        try {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void decision(Expression<Boolean> condition, int branchCount, int branchId) throws IOException {
+        out.writeByte(DECISION);
+        write(condition);
+        out.writeInt(branchCount);
+        out.writeInt(branchId);
+    }
+
+    /**
+     * decision in the expected prefix, reported without condition
+     */
+    public void branch(int branchCount, int branchId) throws IOException {
+        out.writeByte(BRANCH);
+        out.writeInt(branchCount);
+        out.writeInt(branchId);
+    }
+
+    public void assumption(Expression<Boolean> condition, boolean sat) throws IOException {
+        out.writeByte(ASSUMPTION);
+        write(condition);
+        out.writeBoolean(sat);
+    }
+
+    public void error(String cause) throws IOException {
+        out.writeByte(ERROR);
+        writeString(cause, out);
+    }
+
+    public void abort(String cause) throws IOException {
+        out.writeByte(ABORT);
+        writeString(cause, out);
+    }
+
+    public void flow(String flow) throws IOException {
+        out.writeByte(FLOW);
+        writeString(flow, out);
+    }
+
+    public void taintCheck(String check) throws IOException {
+        out.writeByte(TAINTCHECK);
+        writeString(check, out);
+    }
+
+    public void taintViolation(String violation) throws IOException {
+        out.writeByte(TAINT_VIOLATION);
+        writeString(violation, out);
+    }
+
+    public void witness(String clazz, String scope, int line, String value) throws IOException {
+        out.writeByte(WITNESS);
+        writeString(clazz, out);
+        writeString(scope, out);
+        out.writeInt(line);
+        writeString(value, out);
+    }
+
+    /**
+     * terminates the trace (like [ENDOFTRACE])
+     *
+     * @return encoded trace
+     */
+    public byte[] finish() throws IOException {
+        out.writeByte(END);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void write(Expression<?> e) throws IOException {
+        Integer ref = nodes.get(e);
+        if (ref != null) {
+            out.writeByte(REF);
+            out.writeInt(ref);
+            return;
+        }
+        if (e instanceof Variable) {
+            Variable<?> v = (Variable<?>) e;
+            Integer id = vars.get(v.getName());
+            out.writeByte(VAR);
+            if (id != null) {
+                out.writeInt(id);
+            } else {
+                out.writeInt(vars.size());
+                vars.put(v.getName(), vars.size());
+                out.writeByte(indexOf(TYPES, v.getType()));
+                writeString(v.getName(), out);
+            }
+        } else if (e instanceof Constant) {
+            out.writeByte(CONST);
+            writeValue(e.getType(), ((Constant<?>) e).getValue(), out);
+        } else if (e instanceof Negation) {
+            out.writeByte(NOT);
+            write(((Negation) e).getNegated());
+        } else if (e instanceof PropositionalCompound) {
+            PropositionalCompound pc = (PropositionalCompound) e;
+            out.writeByte(LOGICAL);
+            out.writeByte(indexOf(LOGICAL_OPS, pc.getOperator()));
+            write(pc.getLeft());
+            write(pc.getRight());
+        } else if (e instanceof NumericBooleanExpression) {
+            NumericBooleanExpression nb = (NumericBooleanExpression) e;
+            out.writeByte(COMPARE);
+            out.writeByte(indexOf(COMPARATORS, nb.getComparator()));
+            write(nb.getLeft());
+            write(nb.getRight());
+        } else if (e instanceof NumericCompound) {
+            NumericCompound<?> nc = (NumericCompound<?>) e;
+            out.writeByte(ARITH);
+            out.writeByte(indexOf(ARITH_OPS, nc.getOperator()));
+            write(nc.getLeft());
+            write(nc.getRight());
+        } else if (e instanceof UnaryMinus) {
+            out.writeByte(MINUS);
+            write(((UnaryMinus<?>) e).getNegated());
+        } else if (e instanceof BitvectorExpression) {
+            BitvectorExpression<?> bv = (BitvectorExpression<?>) e;
+            out.writeByte(BITWISE);
+            out.writeByte(indexOf(BITWISE_OPS, bv.getOperator()));
+            write(bv.getLeft());
+            write(bv.getRight());
+        } else if (e instanceof BitvectorNegation) {
+            out.writeByte(BITNOT);
+            write(((BitvectorNegation<?>) e).getNegated());
+        } else if (e instanceof IfThenElse) {
+            IfThenElse<?> ite = (IfThenElse<?>) e;
+            out.writeByte(ITE);
+            write(ite.getIf());
+            write(ite.getThen());
+            write(ite.getElse());
+        } else if (e instanceof CastExpression) {
+            out.writeByte(CAST);
+            out.writeByte(indexOf(TYPES, e.getType()));
+            write(((CastExpression<?, ?>) e).getCasted());
+        } else {
+            throw new IllegalArgumentException("not supported in binary traces: " + e.getClass().getSimpleName());
+        }
+        nodes.put(e, nodes.size());
+    }
+}
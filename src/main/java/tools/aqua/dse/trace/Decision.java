@@ -38,6 +38,10 @@ public class Decision {
         this.assumption = assumption;
     }
 
+    /**
+     * @return condition or null for a decision in the expected prefix that
+     *         the executor only reported by branch id
+     */
     public Expression<Boolean> getCondition() {
         return condition;
     }
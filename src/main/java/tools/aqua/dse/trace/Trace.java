@@ -15,18 +15,21 @@
 
 package tools.aqua.dse.trace;
 
+import lombok.extern.slf4j.Slf4j;
+import tools.aqua.dse.iflow.FlowEdges;
 import tools.aqua.dse.paths.PathResult;
 
 import java.util.Arrays;
 import java.util.List;
 
+@Slf4j
 public class Trace {
 
     private final List<Decision> decisions;
 
     private final List<WitnessAssumption> witness;
 
-    private final List<String> flows;
+    private final FlowEdges flows;
 
     private final PathResult traceState;
 
@@ -34,7 +37,7 @@ public class Trace {
         this(decisions, null, null, state);
     }
 
-    public Trace(List<Decision> decisions, List<WitnessAssumption> witness, List<String> flows, PathResult state) {
+    public Trace(List<Decision> decisions, List<WitnessAssumption> witness, FlowEdges flows, PathResult state) {
         this.decisions = decisions;
         this.witness = witness;
         this.flows = flows;
@@ -53,7 +56,7 @@ public class Trace {
         return witness;
     }
 
-    public List<String> getFlows() {
+    public FlowEdges getFlows() {
         return flows;
     }
 
@@ -61,11 +64,17 @@ public class Trace {
         return traceState;
     }
 
+    /**
+     * logs decisions and result at debug level
+     */
     public void print() {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         for (Decision d : decisions) {
-            System.out.println(d);
+            log.debug("{}", d);
         }
-        System.out.println(traceState);
+        log.debug("{}", traceState);
     }
 
     @Override
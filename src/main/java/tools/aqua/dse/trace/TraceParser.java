@@ -21,7 +21,11 @@ import gov.nasa.jpf.constraints.smtlibUtility.SMTProblem;
 import gov.nasa.jpf.constraints.smtlibUtility.parser.SMTLIBParser;
 import gov.nasa.jpf.constraints.smtlibUtility.parser.SMTLIBParserException;
 import gov.nasa.jpf.constraints.util.ExpressionUtil;
+import tools.aqua.dse.iflow.FlowDictionary;
+import tools.aqua.dse.iflow.FlowEdges;
 import tools.aqua.dse.paths.PathResult;
+import tools.aqua.dse.perf.Phase;
+import tools.aqua.dse.perf.PerfStats;
 
 import java.io.IOException;
 import java.util.LinkedList;
@@ -30,10 +34,23 @@ import java.util.List;
 public class TraceParser {
 
     public static Trace parseTrace(List<String> lines, Valuation vals) throws IOException, SMTLIBParserException {
+        return parseTrace(lines, vals, new FlowDictionary());
+    }
+
+    public static Trace parseTrace(List<String> lines, Valuation vals, FlowDictionary dictionary) throws IOException, SMTLIBParserException {
+        long t = PerfStats.start();
+        try {
+            return parseLines(lines, vals, dictionary);
+        } finally {
+            PerfStats.stop(Phase.PARSE, t);
+        }
+    }
+
+    private static Trace parseLines(List<String> lines, Valuation vals, FlowDictionary dictionary) throws IOException, SMTLIBParserException {
         List<Decision> decisions = new LinkedList<>();
         List<WitnessAssumption> witness = new LinkedList<>();
         List<String> taintViolations = new LinkedList<>();
-        List<String> flows = new LinkedList<>();
+        FlowEdges flows = new FlowEdges();
         PathResult result = PathResult.ok(vals);
         String decl = "";
         boolean traceComplete = false;
@@ -41,6 +58,9 @@ public class TraceParser {
             if (line.startsWith("[DECISION]")) {
                 decisions.add(parseDecision( line.substring("[DECISION]".length()), decl));
             }
+            else if (line.startsWith("[BRANCH]")) {
+                decisions.add(parseBranch( line.substring("[BRANCH]".length())));
+            }
             else if (line.startsWith("[DECLARE]")) {
                 decl += line.substring("[DECLARE]".length());
             }
@@ -63,10 +83,10 @@ public class TraceParser {
                 witness.add(parseWitnessAssumption( line.substring("[WITNESS]".length()).trim() ));
             }
             else if (line.startsWith("[FLOW]")) {
-                flows.add( line.substring("[FLOW]".length()).trim() );
+                dictionary.parse( line.substring("[FLOW]".length()).trim(), flows );
             }
             else if (line.startsWith("[TAINTCHECK]")) {
-                flows.add( line.substring("[TAINTCHECK]".length()).trim() );
+                dictionary.parse( line.substring("[TAINTCHECK]".length()).trim(), flows );
             }
             else if (line.startsWith("[ENDOFTRACE]")) {
                 traceComplete = true;
@@ -82,6 +102,18 @@ public class TraceParser {
         return new Trace(decisions, witness, flows, result);
     }
 
+    /**
+     * parses a trace in the binary trace format (see {@link BinaryTraceWriter})
+     */
+    public static Trace parseTrace(byte[] data, Valuation vals, FlowDictionary dictionary) throws IOException {
+        long t = PerfStats.start();
+        try {
+            return BinaryTraceReader.read(data, vals, dictionary);
+        } finally {
+            PerfStats.stop(Phase.PARSE, t);
+        }
+    }
+
     public static Decision parseDecision(String decision, String decl) throws IOException, SMTLIBParserException {
         String[] parts = decision.split("\\/\\/ branchCount=|, branchId=");
         SMTProblem smt = null;
@@ -96,6 +128,13 @@ public class TraceParser {
         return new Decision( ExpressionUtil.and(smt.assertions), branches, branchId);
     }
 
+    /**
+     * parses a decision in the prefix passed to the executor (no condition)
+     */
+    public static Decision parseBranch(String branch) {
+        String[] parts = branch.split("branchCount=|, branchId=");
+        return new Decision(null, Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()));
+    }
 
     public static Decision parseAssumption(String assumption, String decl) throws IOException, SMTLIBParserException {
         String[] parts = assumption.split("\\/\\/ sat=");
@@ -42,4 +42,9 @@ class BFSExplorationStrategy implements ExplorationStrategy {
     public boolean hasMoreNodes() {
         return !queue.isEmpty();
     }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
 }
@@ -22,10 +22,19 @@ import gov.nasa.jpf.constraints.api.ConstraintSolver.Result;
 import gov.nasa.jpf.constraints.api.Expression;
 import gov.nasa.jpf.constraints.api.SolverContext;
 import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.ValuationEntry;
+import gov.nasa.jpf.constraints.api.Variable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tools.aqua.dse.Config;
+import tools.aqua.dse.eval.ExpressionEvaluator;
+import tools.aqua.dse.eval.SlotMap;
+import tools.aqua.dse.eval.Slots;
+import tools.aqua.dse.paths.JsonlResultSink;
 import tools.aqua.dse.paths.PathResult;
+import tools.aqua.dse.perf.Phase;
+import tools.aqua.dse.perf.Events;
+import tools.aqua.dse.perf.PerfStats;
 import tools.aqua.dse.trace.Decision;
 
 import java.util.*;
@@ -41,8 +50,10 @@ public class ConstraintsTree {
   private final SolverContext solverCtx;
   /** valuations for replay */
   private final Iterator<Valuation> replayValues;
+  /** no. of leafs per node type, updated where leafs are created or replaced */
+  private final int[] leafCounts = new int[LeafNode.NodeType.values().length];
   /** root of the tree */
-  private Node root = LeafNode.open(null, -1);
+  private Node root = countLeaf(LeafNode.open(null, -1), 1);
   /** This is the current node in our EXPLORATION */
   private Node current = root;
   /** required for setting initial valuation after execution */
@@ -69,6 +80,45 @@ public class ConstraintsTree {
   private final int termination;
   /** termination flag **/
   private boolean terminate = false;
+  /** check models against the path constraint before executing them */
+  private final boolean validateModels;
+  /** reuse values of the parent execution for unconstrained variables */
+  private final boolean minimizeModels;
+  /** predict divergence by simulating models on the tree */
+  private final boolean simulate;
+  /** slots of variables in compiled constraints */
+  private final SlotMap slots = new SlotMap();
+  /** mutator for fuzzing, null if fuzzing is disabled */
+  private final ValuationMutator mutator;
+  /** no. of mutated candidates to simulate before solving */
+  private final int fuzzCandidates;
+  /** status flag: current target was reached by a mutated valuation */
+  private boolean fuzzedTarget = false;
+  /** status flag: current target was replaced by an earlier trace of the same batch */
+  private boolean detachedTarget = false;
+  /** node the solver context currently represents */
+  private Node contextNode = null;
+  /** targets of valuations that were handed out but not executed yet */
+  private final Deque<Pending> pending = new ArrayDeque<>();
+  /** receives finished paths (may be null) */
+  private JsonlResultSink resultSink = null;
+  /** no. of paths that ended in a new leaf */
+  private int finishedPaths = 0;
+
+  /** target and expectations of a valuation in a batch */
+  private static class Pending {
+    final LeafNode target;
+    final List<Integer> expectedPath;
+    final Valuation values;
+    final boolean fuzzed;
+
+    Pending(LeafNode target, List<Integer> expectedPath, Valuation values, boolean fuzzed) {
+      this.target = target;
+      this.expectedPath = expectedPath;
+      this.values = values;
+      this.fuzzed = fuzzed;
+    }
+  }
 
   public ConstraintsTree(Config config) {
     this.config = config;
@@ -78,6 +128,11 @@ public class ConstraintsTree {
     this.incremental = config.isIncremental();
     this.termination = config.getTermination();
     this.incremental = config.isIncremental();
+    this.validateModels = config.isValidateModels();
+    this.minimizeModels = config.isMinimizeModels();
+    this.simulate = config.isSimulate();
+    this.mutator = config.isFuzz() ? new ValuationMutator(config.getRandom()) : null;
+    this.fuzzCandidates = config.getFuzzCandidates();
 
     switch (config.getStrategy()) {
       case BFS:
@@ -110,21 +165,26 @@ public class ConstraintsTree {
    * @return the node in the tree that would be reached by the given valuation
    */
   public LeafNode simulate(Valuation values) {
+    Slots loaded = slots.load(values);
     Node curr = root;
     while (curr.isDecisionNode()) {
 
       DecisionNode dd = (DecisionNode) curr;
       int branchIdx = -1;
       try {
-        branchIdx = dd.evaluate(values);
+        branchIdx = dd.evaluate(loaded);
       } catch (RuntimeException ex) {
         // e.g. due to function with undefined semantics
         return null;
       }
 
+      if (branchIdx == DecisionNode.UNKNOWN) {
+        return null;
+      }
+
       if (branchIdx < 0) {
-        throw new IllegalStateException(
-            "Non-complete set of constraints at constraints tree node!");
+        logger.warning("Non-complete set of constraints at constraints tree node!");
+        return null;
       }
 
       curr = dd.getChild(branchIdx);
@@ -162,6 +222,12 @@ public class ConstraintsTree {
         // FIXME: this could go wrong on true divergence in switch/case
         if ((expectedBranch != d.getBranchId()) && !multipleOpen)  {
           diverged = true;
+          Events.divergence(depth, expectedBranch, d.getBranchId());
+          if (fuzzedTarget || detachedTarget) {
+            // the target was only guessed or has been explored meanwhile,
+            // leave it to the solver
+            return BranchEffect.UNEXPECTED;
+          }
           // returning unexpected will fail the current target
           // i.e., mark current target as dont_know
           failCurrentTargetDiverged();
@@ -192,6 +258,14 @@ public class ConstraintsTree {
         return BranchEffect.BUGGY;
       }
 
+      if (d.getCondition() == null) {
+        // branch ids are only reported for the expected prefix, which
+        // ends at the target's parent
+        logger.severe("LIKELY A SEVERE BUG IN DSE: decision without condition at leaf: + " + leaf);
+        failCurrentTargetBuggy("decision without condition at leaf");
+        return BranchEffect.BUGGY;
+      }
+
       // expand tree ...
       if (config.maxDepthExceeded(current.depth())) {
         isDepthBounded = true;
@@ -209,11 +283,20 @@ public class ConstraintsTree {
     DecisionNode parent = leaf.parent();
     DecisionNode newInner =
         new DecisionNode(parent, d, leaf.childId(), exploreMode, strategy);
+    newInner.setValues(currentValues);
+    if (mutator != null) {
+      mutator.learn(d.getCondition());
+    }
     if (parent == null) {
       root = newInner;
     } else {
       parent.expand(leaf, newInner);
     }
+    countLeaf(leaf, -1);
+    for (Node child : newInner.children()) {
+      countLeaf((LeafNode) child, 1);
+    }
+    Events.treeExpansion(newInner.depth(), d.getBranches(), d.getBranchId());
     return newInner.getChild(d.getBranchId());
   }
 
@@ -223,6 +306,13 @@ public class ConstraintsTree {
     } else {
       root = newLeaf;
     }
+    countLeaf(oldLeaf, -1);
+    countLeaf(newLeaf, 1);
+  }
+
+  private LeafNode countLeaf(LeafNode leaf, int delta) {
+    leafCounts[leaf.nodeType().ordinal()] += delta;
+    return leaf;
   }
 
   /** @param result */
@@ -235,7 +325,8 @@ public class ConstraintsTree {
     }
 
     // can happen b/c when exploring switching bytecodes
-    if (currentTarget != current) {
+    // (a missed fuzzed target is still known to the strategy)
+    if (currentTarget != current && !fuzzedTarget && !detachedTarget) {
       strategy.newOpen(currentTarget);
       //currentTarget = (LeafNode) current;
     }
@@ -252,15 +343,28 @@ public class ConstraintsTree {
 
     updatedLeaf.setComplete(((LeafNode) current).complete());
 
-    if (current.parent() == null) {
-      root = updatedLeaf;
-    } else {
-      current.parent().replace((LeafNode) current, updatedLeaf);
-    }
+    replaceLeaf((LeafNode) current, updatedLeaf);
     current = updatedLeaf;
     if (initialTarget == null) {
       initialTarget = updatedLeaf;
     }
+    if (resultSink != null) {
+      reportPath(result, updatedLeaf);
+    }
+    finishedPaths++;
+  }
+
+  private void reportPath(PathResult result, LeafNode leaf) {
+    Valuation val = (result instanceof PathResult.ValuationResult)
+        ? ((PathResult.ValuationResult) result).getValuation() : null;
+    String error = (result instanceof PathResult.ErrorResult)
+        ? ((PathResult.ErrorResult) result).getExceptionClass() : null;
+    resultSink.path(finishedPaths, expectedPathTo(leaf),
+        leaf.nodeType().name().toLowerCase(), val, error);
+  }
+
+  public void setResultSink(JsonlResultSink resultSink) {
+    this.resultSink = resultSink;
   }
 
   @Nullable
@@ -308,13 +412,19 @@ public class ConstraintsTree {
 
   /** */
   public void failCurrentTargetDontKnow() {
+    if (isDetached(currentTarget)) {
+      return;
+    }
     currentTarget.parent().useUnexploredConstraint(currentTarget.childId());
     LeafNode dk = LeafNode.dontKnow(currentTarget.parent(), currentTarget.childId());
-    currentTarget.parent().replace(currentTarget, dk);
+    replaceLeaf(currentTarget, dk);
     currentTarget = dk;
   }
 
   public void failCurrentTargetDiverged() {
+    if (isDetached(currentTarget)) {
+      return;
+    }
     currentTarget.parent().useUnexploredConstraint(currentTarget.childId());
     LeafNode div =
         new LeafWithValuation(
@@ -322,27 +432,30 @@ public class ConstraintsTree {
             LeafNode.NodeType.DIVERGED,
             currentTarget.childId(),
             currentValues);
-    currentTarget.parent().replace(currentTarget, div);
+    replaceLeaf(currentTarget, div);
     currentTarget = div;
   }
 
   public void failCurrentTargetUnsat() {
+    if (isDetached(currentTarget)) {
+      return;
+    }
     currentTarget.parent().useUnexploredConstraint(currentTarget.childId());
     LeafNode unsat = LeafNode.unsat(currentTarget.parent(), currentTarget.childId());
-    currentTarget.parent().replace(currentTarget, unsat);
+    replaceLeaf(currentTarget, unsat);
     currentTarget = unsat;
   }
 
   public void failCurrentTargetBuggy(String cause) {
+    if (isDetached(currentTarget)) {
+      return;
+    }
     LeafNode buggy =
             new LeafBuggy(currentTarget.parent(), currentTarget.childId(), currentValues, cause);
     if (currentTarget.parent() != null) {
       currentTarget.parent().useUnexploredConstraint(currentTarget.childId());
-      currentTarget.parent().replace(currentTarget, buggy);
-    }
-    else {
-      root = buggy;
     }
+    replaceLeaf(currentTarget, buggy);
     currentTarget = buggy;
   }
 
@@ -429,6 +542,15 @@ public class ConstraintsTree {
    * @return
    */
   public Valuation findNext() {
+    long t = PerfStats.start();
+    try {
+      return nextValuation();
+    } finally {
+      PerfStats.stop(Phase.FIND_NEXT, t);
+    }
+  }
+
+  private Valuation nextValuation() {
     if (terminate) {
       //TODO: close tree somehow?
       return null;
@@ -444,7 +566,17 @@ public class ConstraintsTree {
       } else {
         currentTarget = null;
         assert this.expectedPath.isEmpty();
-        return replayValues.next();
+        currentValues = replayValues.next();
+        return currentValues;
+      }
+    }
+
+    fuzzedTarget = false;
+    detachedTarget = false;
+    if (mutator != null && currentValues != null) {
+      Valuation fuzzed = fuzz();
+      if (fuzzed != null) {
+        return fuzzed;
       }
     }
 
@@ -459,26 +591,23 @@ public class ConstraintsTree {
         nextOpen = strategy.nextOpenNode();
 
         // check if node is still valid
-        if ((nextOpen.parent() == null && root != nextOpen)
-            || (nextOpen.parent() != null
-                && nextOpen.parent().getChild(nextOpen.childId()) != nextOpen)
-            || nextOpen.isFinal()
-            || (nextOpen.parent() != null && nextOpen.parent().isExhausted())) {
+        if (!isValidTarget(nextOpen)) {
           nextOpen = null;
           continue;
         }
       }
 
       // update context and current target
-      updateContext(
-          (currentTarget == null || currentTarget.parent() == null) ? root : currentTarget,
-          nextOpen);
-      currentTarget = nextOpen;
+      moveTo(nextOpen);
 
       // find model
       Valuation val = new Valuation();
       logger.finer("Finding new valuation");
+      Object event = Events.beginSolverQuery();
+      long t = PerfStats.start();
       Result res = solverCtx.solve(val);
+      PerfStats.stop(Phase.SOLVE, t);
+      Events.commitSolverQuery(event, currentTarget.depth(), val.getVariables().size(), res.toString());
       currentValues = val;
       logger.finer("Found: " + res + " : " + val);
 
@@ -494,18 +623,27 @@ public class ConstraintsTree {
           failCurrentTargetDontKnow();
           break;
         case SAT:
-          /* discbled b/c jconstraints cant evaluate currently
-          LeafNode predictedTarget = simulate(val);
-          if (predictedTarget != null && predictedTarget != currentTarget) {
-            boolean inconclusive = predictedTarget.isExhausted();
-            logger.info("Predicted " + (inconclusive ? "inconclusive " : "") + "divergence");
-            if (inconclusive) {
-              logger.finer("NOT attempting execution");
-              failCurrentTargetBuggy("Failed to simulate");
+          if (validateModels || minimizeModels) {
+            val = checkModel(val);
+            if (val == null) {
+              logger.info("Model does not satisfy path constraint");
+              failCurrentTargetDontKnow();
               break;
             }
+            currentValues = val;
+          }
+          if (simulate) {
+            LeafNode predictedTarget = simulate(val);
+            if (predictedTarget != null && predictedTarget != currentTarget) {
+              boolean inconclusive = predictedTarget.isExhausted();
+              logger.info("Predicted " + (inconclusive ? "inconclusive " : "") + "divergence");
+              if (inconclusive) {
+                logger.finer("NOT attempting execution");
+                failCurrentTargetBuggy("Failed to simulate");
+                break;
+              }
+            }
           }
-           */
           expectedPath = expectedPathTo(currentTarget);
           return val;
         default:
@@ -518,6 +656,184 @@ public class ConstraintsTree {
     return null;
   }
 
+  private boolean isValidTarget(LeafNode leaf) {
+    return !((leaf.parent() == null && root != leaf)
+        || (leaf.parent() != null
+            && leaf.parent().getChild(leaf.childId()) != leaf)
+        || leaf.isFinal()
+        || (leaf.parent() != null && leaf.parent().isExhausted()));
+  }
+
+  private boolean isPendingTarget(LeafNode leaf) {
+    for (Pending p : pending) {
+      if (p.target == leaf) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isDetached(LeafNode leaf) {
+    if (leaf == null) {
+      return false;
+    }
+    return (leaf.parent() == null) ? root != leaf : leaf.parent().getChild(leaf.childId()) != leaf;
+  }
+
+  private void moveTo(LeafNode target) {
+    updateContext(
+        (contextNode == null || contextNode.parent() == null) ? root : contextNode,
+        target);
+    contextNode = target;
+    currentTarget = target;
+  }
+
+  /**
+   * Finds up to n valuations for different open nodes. Traces for them
+   * have to be added in the same order, each after a call to
+   * {@link #startTrace()}.
+   *
+   * @param n
+   * @return
+   */
+  public List<Valuation> findNext(int n) {
+    List<Valuation> next = new ArrayList<>();
+    while (next.size() < n) {
+      Valuation val = findNext();
+      if (val == null) {
+        break;
+      }
+      next.add(val);
+      pending.add(new Pending(currentTarget, expectedPath, currentValues, fuzzedTarget));
+      if (currentTarget == null) {
+        // replayed values: no target to batch with
+        break;
+      }
+    }
+    return next;
+  }
+
+  /**
+   * The prefix ends at the target's parent: the decision into the target
+   * is always reported in full, s.t. the parent learns the constraint of
+   * the branch (n-way nodes cannot derive it from their other branches).
+   *
+   * @return expected branch ids up to the target's parent for the valuations
+   *     returned by {@link #findNext(int)} that have no trace yet (empty for
+   *     replayed values)
+   */
+  public List<List<Integer>> getPendingPaths() {
+    List<List<Integer>> paths = new ArrayList<>();
+    for (Pending p : pending) {
+      paths.add(p.target != null && !p.expectedPath.isEmpty()
+          ? p.expectedPath.subList(0, p.expectedPath.size() - 1)
+          : Collections.<Integer>emptyList());
+    }
+    return paths;
+  }
+
+  /**
+   * Restores target and expected path for the next trace of a batch.
+   */
+  public void startTrace() {
+    current = root;
+    diverged = false;
+    Pending p = pending.poll();
+    if (p == null) {
+      return;
+    }
+    currentTarget = p.target;
+    expectedPath = p.expectedPath;
+    currentValues = p.values;
+    fuzzedTarget = p.fuzzed;
+    detachedTarget = isDetached(currentTarget);
+  }
+
+  /**
+   * Mutates the last executed valuation and simulates the candidates on
+   * the tree. The first candidate that reaches an open leaf is used
+   * without querying the solver.
+   *
+   * @return valuation for an open leaf or null
+   */
+  private Valuation fuzz() {
+    for (int i = 0; i < fuzzCandidates; i++) {
+      Valuation candidate = mutator.mutate(currentValues);
+      LeafNode leaf = simulate(candidate);
+      if (leaf != null
+          && leaf.nodeType() == LeafNode.NodeType.OPEN
+          && isValidTarget(leaf)
+          && !isPendingTarget(leaf)) {
+        logger.finer("Fuzzed: " + candidate);
+        moveTo(leaf);
+        fuzzedTarget = true;
+        currentValues = candidate;
+        expectedPath = expectedPathTo(currentTarget);
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Minimizes and validates a model for the current target.
+   *
+   * @param model
+   * @return valuation to execute or null if the model does not satisfy the path constraint
+   */
+  private Valuation checkModel(Valuation model) {
+    List<Expression<Boolean>> path = pathConstraint(currentTarget, root);
+    if (minimizeModels) {
+      Valuation min = minimize(model, path);
+      if (!validateModels || satisfies(min, path)) {
+        return min;
+      }
+    }
+    return (!validateModels || satisfies(model, path)) ? model : null;
+  }
+
+  /**
+   * Keeps model values only for variables that occur on the path and uses
+   * the values of the execution that reached the parent of the target for
+   * all other variables.
+   */
+  private Valuation minimize(Valuation model, List<Expression<Boolean>> path) {
+    Set<Variable<?>> constrained = new HashSet<>();
+    for (Expression<Boolean> clause : path) {
+      clause.collectFreeVariables(constrained);
+    }
+    Valuation min = new Valuation();
+    DecisionNode parent = currentTarget.parent();
+    if (parent != null && parent.getValues() != null) {
+      for (ValuationEntry e : parent.getValues()) {
+        min.setValue(e.getVariable(), e.getValue());
+      }
+    }
+    for (ValuationEntry e : model) {
+      if (constrained.contains(e.getVariable())) {
+        min.setValue(e.getVariable(), e.getValue());
+      }
+    }
+    return min;
+  }
+
+  /**
+   * @return false if the valuation violates a clause, true if it satisfies
+   *     the path or if the path cannot be evaluated
+   */
+  private boolean satisfies(Valuation val, List<Expression<Boolean>> path) {
+    try {
+      for (Expression<Boolean> clause : path) {
+        if (!ExpressionEvaluator.holds(clause, val)) {
+          return false;
+        }
+      }
+    } catch (RuntimeException ex) {
+      logger.finer("Could not evaluate path constraint: " + ex.getMessage());
+    }
+    return true;
+  }
+
   public void setInitialValuation(Valuation initValuation) {
     ((LeafWithValuation) initialTarget).updateValues(initValuation);
   }
@@ -526,6 +842,14 @@ public class ConstraintsTree {
     return root;
   }
 
+  int frontierSize() {
+    return strategy.size();
+  }
+
+  int leafCount(LeafNode.NodeType type) {
+    return leafCounts[type.ordinal()];
+  }
+
   /**
    * does constraints tree explore nodes?
    *
@@ -75,6 +75,26 @@ public class ConstraintsTreeAnalysis {
         return getNodesMatchingStates(EnumSet.of(LeafNode.NodeType.DIVERGED));
     }
 
+    /**
+     * @return no. of nodes queued for exploration
+     */
+    public int getFrontierSize() {
+        return constraintsTree.frontierSize();
+    }
+
+    /**
+     * counts are maintained by the tree, so this does not walk the tree
+     *
+     * @return no. of leafs per node type (lower case names, all types included)
+     */
+    public Map<String, Integer> getLeafCounts() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (LeafNode.NodeType t : LeafNode.NodeType.values()) {
+            result.put(t.name().toLowerCase(), constraintsTree.leafCount(t));
+        }
+        return result;
+    }
+
     private Collection<LeafNode> getNodesMatchingStates(EnumSet<LeafNode.NodeType> states) {
 
         Collection<LeafNode> matching = new LinkedList<>();
@@ -35,4 +35,9 @@ class DFSExplorationStrategy implements ExplorationStrategy {
     public boolean hasMoreNodes() {
         return !nodes.isEmpty();
     }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
 }
@@ -19,6 +19,10 @@ import gov.nasa.jpf.constraints.api.Expression;
 import gov.nasa.jpf.constraints.api.Valuation;
 import gov.nasa.jpf.constraints.expressions.Negation;
 import gov.nasa.jpf.constraints.util.ExpressionUtil;
+import tools.aqua.dse.eval.ExpressionEvaluator;
+import tools.aqua.dse.eval.Program;
+import tools.aqua.dse.eval.ProgramCompiler;
+import tools.aqua.dse.eval.Slots;
 import tools.aqua.dse.trace.Decision;
 
 class DecisionNode extends Node {
@@ -26,6 +30,13 @@ class DecisionNode extends Node {
     private final Expression<Boolean>[] constraints;
     private final Node[] children;
     private boolean exhausted = false;
+    /** values of the execution that first reached this node */
+    private Valuation values;
+    /** compiled constraints, null until first evaluation and after constraints changed */
+    private Program[] programs;
+
+    /** evaluate() result if the branch depends on a constraint that is not known yet */
+    static final int UNKNOWN = -2;
 
     DecisionNode(DecisionNode parent, Decision d, int pos,
                  boolean explore, ExplorationStrategy strategy) {
@@ -68,8 +79,9 @@ class DecisionNode extends Node {
     }
 
     void update(Decision d) {
-        if (constraints[d.getBranchId()] == null) {
+        if (constraints[d.getBranchId()] == null && d.getCondition() != null) {
             constraints[d.getBranchId()] = d.getCondition();
+            programs = null;
         }
     }
 
@@ -78,6 +90,7 @@ class DecisionNode extends Node {
             exhausted = true;
         }
         constraints[idx] = getConstraint(idx);
+        programs = null;
     }
 
     int missingConstraints() {
@@ -91,6 +104,14 @@ class DecisionNode extends Node {
         return i;
     }
 
+    Valuation getValues() {
+        return values;
+    }
+
+    void setValues(Valuation values) {
+        this.values = values;
+    }
+
     Node getChild(int idx) {
         return children[idx];
     }
@@ -113,19 +134,43 @@ class DecisionNode extends Node {
     }
 
     /**
+     * Constraints are compiled on first use. Constraints that cannot be
+     * compiled are interpreted. If no known constraint is satisfied and
+     * exactly one constraint is unknown, that branch is taken.
      *
      * @param values
-     * @return -1 if no constraint is satisfied
+     * @return -1 if no constraint is satisfied, UNKNOWN if the branch cannot be decided
      * @throws RuntimeException e.g. due to function with undefined semantics
      */
-    int evaluate(Valuation values) throws RuntimeException {
+    int evaluate(Slots values) throws RuntimeException {
+        if (programs == null) {
+            programs = new Program[constraints.length];
+            for (int i = 0; i < constraints.length; i++) {
+                if (constraints[i] != null) {
+                    programs[i] = ProgramCompiler.compile(constraints[i], values.getMap());
+                }
+            }
+        }
+        int unknown = -1;
+        int unknowns = 0;
         for (int i = 0; i < constraints.length; i++) {
             Expression<Boolean> constraint = constraints[i];
-            if (constraint.evaluate(values)) {
+            if (constraint == null) {
+                unknown = i;
+                unknowns++;
+                continue;
+            }
+            boolean holds = (programs[i] != null)
+                    ? programs[i].holds(values)
+                    : ExpressionEvaluator.holds(constraint, values.getValuation());
+            if (holds) {
                 return i;
             }
         }
-        return -1;
+        if (unknowns == 1) {
+            return unknown;
+        }
+        return unknowns > 1 ? UNKNOWN : -1;
     }
 
     String validateDecision(Decision d) {
@@ -22,4 +22,9 @@ interface ExplorationStrategy {
     void newOpen(LeafNode n);
 
     boolean hasMoreNodes();
+
+    /**
+     * @return no. of queued nodes (may include nodes that are no longer open)
+     */
+    int size();
 }
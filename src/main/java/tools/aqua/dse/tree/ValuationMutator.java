@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.tree;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.ValuationEntry;
+import gov.nasa.jpf.constraints.expressions.Constant;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Derives candidate valuations from executed ones by flipping bits,
+ * inserting boundary values, and reusing constants that occurred in
+ * branch conditions.
+ */
+class ValuationMutator {
+
+    private static final int MAX_DICTIONARY = 256;
+
+    private static final long[] BOUNDARIES = {0, 1, -1,
+            Byte.MIN_VALUE, Byte.MAX_VALUE, Short.MIN_VALUE, Short.MAX_VALUE,
+            Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE};
+
+    private static final double[] FP_BOUNDARIES = {0.0, -0.0, 1.0, -1.0,
+            Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+    private final Random random;
+
+    private final Set<Object> known = new HashSet<>();
+
+    private final List<Number> numbers = new ArrayList<>();
+
+    private final List<String> strings = new ArrayList<>();
+
+    ValuationMutator(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * adds the constants of a branch condition to the dictionary
+     */
+    void learn(Expression<?> condition) {
+        if (condition == null) {
+            return;
+        }
+        Deque<Expression<?>> todo = new ArrayDeque<>();
+        todo.push(condition);
+        while (!todo.isEmpty() && known.size() < MAX_DICTIONARY) {
+            Expression<?> e = todo.pop();
+            if (e instanceof Constant) {
+                Object v = ((Constant<?>) e).getValue();
+                if (v != null && known.add(v)) {
+                    if (v instanceof Number) {
+                        numbers.add((Number) v);
+                    } else if (v instanceof Character) {
+                        numbers.add((int) (Character) v);
+                    } else if (v instanceof String) {
+                        strings.add((String) v);
+                    }
+                }
+                continue;
+            }
+            for (Expression<?> child : e.getChildren()) {
+                todo.push(child);
+            }
+        }
+    }
+
+    /**
+     * @return copy of base with one or two values mutated
+     */
+    Valuation mutate(Valuation base) {
+        List<ValuationEntry<?>> entries = new ArrayList<>(base.entries());
+        Valuation mutated = new Valuation();
+        for (ValuationEntry e : entries) {
+            mutated.setValue(e.getVariable(), e.getValue());
+        }
+        if (entries.isEmpty()) {
+            return mutated;
+        }
+        int n = 1 + random.nextInt(2);
+        for (int i = 0; i < n; i++) {
+            ValuationEntry e = entries.get(random.nextInt(entries.size()));
+            mutated.setValue(e.getVariable(), mutate(mutated.getValue(e.getVariable())));
+        }
+        return mutated;
+    }
+
+    Object mutate(Object value) {
+        if (value instanceof Boolean) {
+            return !(Boolean) value;
+        }
+        if (value instanceof Integer) {
+            return (int) mutateIntegral((Integer) value, 32);
+        }
+        if (value instanceof Long) {
+            return mutateIntegral((Long) value, 64);
+        }
+        if (value instanceof Short) {
+            return (short) mutateIntegral((Short) value, 16);
+        }
+        if (value instanceof Byte) {
+            return (byte) mutateIntegral((Byte) value, 8);
+        }
+        if (value instanceof Character) {
+            return (char) mutateIntegral((Character) value, 16);
+        }
+        if (value instanceof Double) {
+            return mutateFloatingPoint((Double) value);
+        }
+        if (value instanceof Float) {
+            return (float) mutateFloatingPoint((Float) value);
+        }
+        if (value instanceof String) {
+            return mutateString((String) value);
+        }
+        return value;
+    }
+
+    private long mutateIntegral(long value, int width) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return value ^ (1L << random.nextInt(width));
+            case 1:
+                return BOUNDARIES[random.nextInt(BOUNDARIES.length)];
+            default:
+                if (numbers.isEmpty()) {
+                    return value + random.nextInt(3) - 1;
+                }
+                // constant and its neighbours to hit both sides of comparisons
+                return numbers.get(random.nextInt(numbers.size())).longValue() + random.nextInt(3) - 1;
+        }
+    }
+
+    private double mutateFloatingPoint(double value) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return Double.longBitsToDouble(Double.doubleToRawLongBits(value) ^ (1L << random.nextInt(64)));
+            case 1:
+                return FP_BOUNDARIES[random.nextInt(FP_BOUNDARIES.length)];
+            default:
+                if (numbers.isEmpty()) {
+                    return value;
+                }
+                return numbers.get(random.nextInt(numbers.size())).doubleValue();
+        }
+    }
+
+    private String mutateString(String value) {
+        switch (random.nextInt(3)) {
+            case 0:
+                if (value.isEmpty()) {
+                    return String.valueOf((char) (' ' + random.nextInt(95)));
+                }
+                char[] chars = value.toCharArray();
+                int i = random.nextInt(chars.length);
+                chars[i] = (char) (chars[i] ^ (1 << random.nextInt(7)));
+                return new String(chars);
+            case 1:
+                return "";
+            default:
+                if (strings.isEmpty()) {
+                    return value + value;
+                }
+                return strings.get(random.nextInt(strings.size()));
+        }
+    }
+}
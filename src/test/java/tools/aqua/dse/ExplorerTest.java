@@ -27,7 +27,10 @@ import tools.aqua.dse.paths.PathResult;
 import tools.aqua.dse.trace.Decision;
 import tools.aqua.dse.trace.Trace;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 public class ExplorerTest {
@@ -151,5 +154,151 @@ public class ExplorerTest {
         System.out.println(e.getAnalysis());
     }
 
+    @Test
+    public void testExplorerBatch() {
+        Properties props = new Properties();
+        props.setProperty("dse.dp", "z3");
+        props.setProperty("dse.executor", "dummy");
+        props.setProperty("dse.executor.batch", "2");
+        Config config = Config.fromProperties(props);
+
+        Explorer e = new Explorer(config);
+
+        Variable x = Variable.create(BuiltinTypes.SINT32, "x");
+        Variable y = Variable.create(BuiltinTypes.SINT32, "y");
+        Constant c5 = Constant.create(BuiltinTypes.SINT32, 5);
+
+        Decision xLe5 = new Decision(new NumericBooleanExpression(x, NumericComparator.LE, c5), 2, 0);
+        Decision xGt5 = new Decision(new NumericBooleanExpression(x, NumericComparator.GT, c5), 2, 1);
+        Decision yLe5 = new Decision(new NumericBooleanExpression(y, NumericComparator.LE, c5), 2, 0);
+        Decision yGt5 = new Decision(new NumericBooleanExpression(y, NumericComparator.GT, c5), 2, 1);
+
+        assert e.getNextValuations().size() == 1;
+        Valuation v1 = e.getNextValuation();
+        e.addTraces(Collections.singletonList(new Trace(Arrays.asList(xLe5, yLe5), new PathResult.OkResult(v1))));
+
+        // both open branches in one batch
+        List<Valuation> batch = e.getNextValuations();
+        assert batch.size() == 2;
+        List<Trace> traces = new ArrayList<>();
+        for (Valuation val : batch) {
+            List<Decision> path = ((Integer) val.getValue(x)) > 5
+                    ? Collections.singletonList(xGt5) : Arrays.asList(xLe5, yGt5);
+            traces.add(new Trace(path, new PathResult.OkResult(val)));
+        }
+        e.addTraces(traces);
+
+        assert !e.hasNextValuation();
+
+        System.out.println(e.getAnalysis());
+    }
+
+    /**
+     * reports decisions on the prefix by branch id only, as an executor would
+     */
+    private List<Decision> elide(List<Decision> path, List<Integer> prefix) {
+        List<Decision> elided = new ArrayList<>();
+        boolean expected = true;
+        for (int i = 0; i < path.size(); i++) {
+            Decision d = path.get(i);
+            expected = expected && i < prefix.size() && prefix.get(i) == d.getBranchId();
+            elided.add(expected ? new Decision(null, d.getBranches(), d.getBranchId()) : d);
+        }
+        return elided;
+    }
+
+    @Test
+    public void testExplorerElidedPrefix() {
+        Properties props = new Properties();
+        props.setProperty("dse.dp", "z3");
+        props.setProperty("dse.executor", "dummy");
+        props.setProperty("dse.executor.prefix", "true");
+        Config config = Config.fromProperties(props);
+
+        Explorer e = new Explorer(config);
+
+        Variable x = Variable.create(BuiltinTypes.SINT32, "x");
+        Variable y = Variable.create(BuiltinTypes.SINT32, "y");
+        Constant c5 = Constant.create(BuiltinTypes.SINT32, 5);
+
+        Decision xLe5 = new Decision(new NumericBooleanExpression(x, NumericComparator.LE, c5), 2, 0);
+        Decision xGt5 = new Decision(new NumericBooleanExpression(x, NumericComparator.GT, c5), 2, 1);
+        Decision yLe5 = new Decision(new NumericBooleanExpression(y, NumericComparator.LE, c5), 2, 0);
+        Decision yGt5 = new Decision(new NumericBooleanExpression(y, NumericComparator.GT, c5), 2, 1);
+
+        Valuation v1 = e.getNextValuation();
+        e.addTraces(Collections.singletonList(new Trace(Arrays.asList(xLe5, yLe5), new PathResult.OkResult(v1))));
+
+        // decisions up to the target's parent are elided, the one into the target is not
+        int paths = 1;
+        while (e.hasNextValuation()) {
+            List<Integer> prefix = e.getNextPrefixes().get(0);
+            Valuation val = e.getNextValuation();
+            List<Decision> path = ((Integer) val.getValue(x)) > 5
+                    ? Collections.singletonList(xGt5)
+                    : Arrays.asList(xLe5, ((Integer) val.getValue(y)) > 5 ? yGt5 : yLe5);
+            assert prefix.size() < path.size();
+            e.addTraces(Collections.singletonList(new Trace(elide(path, prefix), new PathResult.OkResult(val))));
+            paths++;
+        }
+        assert paths == 3;
+
+        System.out.println(e.getAnalysis());
+    }
+
+    @Test
+    public void testExplorerElidedPrefixThreeBranches() {
+        Properties props = new Properties();
+        props.setProperty("dse.dp", "z3");
+        props.setProperty("dse.executor", "dummy");
+        props.setProperty("dse.executor.prefix", "true");
+        Config config = Config.fromProperties(props);
+
+        Explorer e = new Explorer(config);
 
+        Variable x = Variable.create(BuiltinTypes.SINT32, "x");
+        Variable y = Variable.create(BuiltinTypes.SINT32, "y");
+        Constant c1 = Constant.create(BuiltinTypes.SINT32, 1);
+        Constant c2 = Constant.create(BuiltinTypes.SINT32, 2);
+        Constant c5 = Constant.create(BuiltinTypes.SINT32, 5);
+
+        Expression<Boolean> x1 = new NumericBooleanExpression(x, NumericComparator.EQ, c1);
+        Expression<Boolean> x2 = new NumericBooleanExpression(x, NumericComparator.EQ, c2);
+        Decision yLe5 = new Decision(new NumericBooleanExpression(y, NumericComparator.LE, c5), 2, 0);
+        Decision yGt5 = new Decision(new NumericBooleanExpression(y, NumericComparator.GT, c5), 2, 1);
+        Decision[] sw = new Decision[] {
+            new Decision(x1, 3, 0),
+            new Decision(x2, 3, 1),
+            new Decision(new Negation(ExpressionUtil.or(x1, x2)), 3, 2)
+        };
+
+        Valuation v1 = e.getNextValuation();
+        e.addTraces(Collections.singletonList(new Trace(Collections.singletonList(yLe5), new PathResult.OkResult(v1))));
+
+        // the switch is reached through the elided prefix [1], every
+        // switch branch has to be explored exactly once
+        boolean[] explored = new boolean[3];
+        int paths = 1;
+        while (e.hasNextValuation()) {
+            List<Integer> prefix = e.getNextPrefixes().get(0);
+            Valuation val = e.getNextValuation();
+            List<Decision> path;
+            if (((Integer) val.getValue(y)) <= 5) {
+                path = Collections.singletonList(yLe5);
+            } else {
+                int xv = (Integer) val.getValue(x);
+                int branch = xv == 1 ? 0 : (xv == 2 ? 1 : 2);
+                assert !explored[branch];
+                explored[branch] = true;
+                path = Arrays.asList(yGt5, sw[branch]);
+            }
+            assert prefix.size() < path.size();
+            e.addTraces(Collections.singletonList(new Trace(elide(path, prefix), new PathResult.OkResult(val))));
+            paths++;
+        }
+        assert paths == 4;
+        assert explored[0] && explored[1] && explored[2];
+
+        System.out.println(e.getAnalysis());
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.bounds;
+
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class BoundScheduleTest {
+
+    private static final Variable<Integer> X = Variable.create(BuiltinTypes.SINT32, "__int_0");
+
+    private static final Variable<Integer> Y = Variable.create(BuiltinTypes.SINT32, "__int_1");
+
+    @Test
+    public void testStartsAtRecordedLevel() {
+        BoundSchedule schedule = new BoundSchedule(8, 4);
+        Set<Variable<?>> xy = new HashSet<>(Arrays.asList(X, Y));
+        Assert.assertEquals(schedule.start(xy), 1);
+
+        schedule.record(xy, 3);
+        Assert.assertEquals(schedule.start(xy), 3);
+        Assert.assertEquals(schedule.start(Collections.<Variable<?>>singleton(X)), 1);
+
+    }
+
+    @Test
+    public void testUnboundedIsNotRecorded() {
+        BoundSchedule schedule = new BoundSchedule(8, 4);
+        Set<Variable<?>> x = Collections.<Variable<?>>singleton(X);
+        Set<Variable<?>> xy = new HashSet<>(Arrays.asList(X, Y));
+
+        // one hard query must not turn off bounded solving for later queries
+        schedule.record(x, BoundSchedule.UNBOUNDED);
+        Assert.assertEquals(schedule.start(x), 1);
+        Assert.assertEquals(schedule.size(), 0);
+
+        schedule.record(xy, 3);
+        schedule.record(xy, BoundSchedule.UNBOUNDED);
+        Assert.assertEquals(schedule.start(xy), 3);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        BoundSchedule schedule = new BoundSchedule(2, 4);
+        Set<Variable<?>> x = Collections.<Variable<?>>singleton(X);
+        Set<Variable<?>> y = Collections.<Variable<?>>singleton(Y);
+        Set<Variable<?>> xy = new HashSet<>(Arrays.asList(X, Y));
+
+        schedule.record(x, 2);
+        schedule.record(y, 2);
+        schedule.start(x);
+        schedule.record(xy, 2);
+
+        Assert.assertEquals(schedule.size(), 2);
+        Assert.assertEquals(schedule.start(x), 2);
+        Assert.assertEquals(schedule.start(y), 1);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package tools.aqua.dse.bounds;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BoundedSolverTest {
+
+    @Test
+    public void testTypeSteps() {
+        Map<String, Integer> steps = new HashMap<>();
+        steps.put("byte", 10);
+        steps.put("long", 1000);
+        BoundedSolver linear = new BoundedSolver(null, 200, 3, BoundedSolver.BoundType.linear,
+                false, false, BoundedSolver.DEFAULT_TYPES, steps, null);
+        Assert.assertEquals(linear.boundFor("byte", 2), 20);
+        Assert.assertEquals(linear.boundFor("long", 2), 2000);
+        // falls back to dse.bounds.step
+        Assert.assertEquals(linear.boundFor("int", 2), 400);
+
+        BoundedSolver fibonacci = new BoundedSolver(null, 200, 3, BoundedSolver.BoundType.fibonacci,
+                false, false, BoundedSolver.DEFAULT_TYPES, steps, null);
+        Assert.assertEquals(fibonacci.boundFor("byte", 3), 50);
+        Assert.assertEquals(fibonacci.boundFor("int", 3), 5);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParallelNeedsWorkerSolvers() {
+        new BoundedSolver(null, 200, 3, BoundedSolver.BoundType.linear,
+                false, true, BoundedSolver.DEFAULT_TYPES, Collections.<String, Integer>emptyMap(), null);
+    }
+}
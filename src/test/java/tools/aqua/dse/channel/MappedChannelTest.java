@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.channel;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class MappedChannelTest {
+
+    @Test
+    public void testExchange() throws IOException {
+        Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_0");
+        Variable<String> s = Variable.create(BuiltinTypes.STRING, "__string_0");
+        Valuation v1 = new Valuation();
+        v1.setValue(x, 41);
+        v1.setValue(s, "a,b\tc");
+        Valuation v2 = new Valuation();
+        v2.setValue(x, -1);
+
+        Path file;
+        try (MappedChannel dse = MappedChannel.create(Arrays.asList(v1, v2), 4096)) {
+            file = dse.getFile();
+            try (MappedChannel executor = MappedChannel.open(file)) {
+                List<Valuation> vals = executor.readValuations();
+                Assert.assertEquals(vals.size(), 2);
+                Assert.assertEquals((int) vals.get(0).getValue(x), 41);
+                Assert.assertEquals(vals.get(0).getValue(s), "a,b\tc");
+                Assert.assertEquals((int) vals.get(1).getValue(x), -1);
+
+                executor.appendLine("[DECISION] (assert (bvslt __int_0 #x00000028)) // branchCount=2, branchId=1");
+                executor.appendLine("[ENDOFTRACE]");
+            }
+            Assert.assertEquals(dse.readLines(), Arrays.asList(
+                    "[DECISION] (assert (bvslt __int_0 #x00000028)) // branchCount=2, branchId=1",
+                    "[ENDOFTRACE]"));
+        }
+        Assert.assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testGrow() throws IOException {
+        try (MappedChannel dse = MappedChannel.create(Arrays.asList(new Valuation()), 64)) {
+            try (MappedChannel executor = MappedChannel.open(dse.getFile())) {
+                for (int i = 0; i < 10; i++) {
+                    executor.appendLine("[ENDOFTRACE]");
+                }
+            }
+            Assert.assertEquals(dse.readLines().size(), 10);
+        }
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_0");
+        Valuation v1 = new Valuation();
+        v1.setValue(x, 1);
+        Valuation v2 = new Valuation();
+        v2.setValue(x, 2);
+
+        try (MappedChannel dse = MappedChannel.create(Arrays.asList(v1), 4096)) {
+            dse.appendLine("[ENDOFTRACE]");
+            dse.reset(Arrays.asList(v1, v2), null);
+            Assert.assertTrue(dse.readLines().isEmpty());
+            try (MappedChannel executor = MappedChannel.open(dse.getFile())) {
+                Assert.assertEquals(executor.readValuations().size(), 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.eval;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.BitvectorExpression;
+import gov.nasa.jpf.constraints.expressions.BitvectorOperator;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.LogicalOperator;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.NumericOperator;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.expressions.StringIntegerExpression;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+
+public class ExpressionEvaluatorTest {
+
+    private static final Variable<Integer> X = Variable.create(BuiltinTypes.SINT32, "__int_0");
+
+    private static final Variable<Byte> B = Variable.create(BuiltinTypes.SINT8, "__byte_0");
+
+    @Test
+    public void testIntegerOverflowWraps() {
+        Valuation val = new Valuation();
+        val.setValue(X, Integer.MAX_VALUE);
+        Expression<Integer> sum = new NumericCompound<>(X, NumericOperator.PLUS, Constant.create(BuiltinTypes.SINT32, 1));
+        Assert.assertEquals(ExpressionEvaluator.evaluate(sum, val), Integer.MIN_VALUE);
+
+        Expression<Boolean> negative = new NumericBooleanExpression(sum, NumericComparator.LT, Constant.create(BuiltinTypes.SINT32, 0));
+        Assert.assertTrue(ExpressionEvaluator.holds(negative, val));
+    }
+
+    @Test
+    public void testBitvectorOperations() {
+        Valuation val = new Valuation();
+        val.setValue(X, -8);
+        val.setValue(B, (byte) 0x70);
+
+        Expression<Integer> shr = BitvectorExpression.create(X, BitvectorOperator.SHIFTR, Constant.create(BuiltinTypes.SINT32, 1));
+        Assert.assertEquals(ExpressionEvaluator.evaluate(shr, val), -4);
+        Expression<Integer> ushr = BitvectorExpression.create(X, BitvectorOperator.SHIFTUR, Constant.create(BuiltinTypes.SINT32, 28));
+        Assert.assertEquals(ExpressionEvaluator.evaluate(ushr, val), 15);
+        Expression<Integer> shl = BitvectorExpression.create(X, BitvectorOperator.SHIFTL, Constant.create(BuiltinTypes.SINT32, 32));
+        Assert.assertEquals(ExpressionEvaluator.evaluate(shl, val), 0);
+
+        Expression<Byte> doubled = new NumericCompound<>(B, NumericOperator.MUL, Constant.create(BuiltinTypes.SINT8, (byte) 2));
+        Assert.assertEquals(ExpressionEvaluator.evaluate(doubled, val), (byte) 0xE0);
+    }
+
+    @Test
+    public void testPropositional() {
+        Valuation val = new Valuation();
+        val.setValue(X, 5);
+        Expression<Boolean> gt = new NumericBooleanExpression(X, NumericComparator.GT, Constant.create(BuiltinTypes.SINT32, 3));
+        Expression<Boolean> eq = new NumericBooleanExpression(X, NumericComparator.EQ, Constant.create(BuiltinTypes.SINT32, 4));
+        Assert.assertTrue(ExpressionEvaluator.holds(new PropositionalCompound(gt, LogicalOperator.XOR, eq), val));
+        Assert.assertFalse(ExpressionEvaluator.holds(new PropositionalCompound(gt, LogicalOperator.IMPLY, eq), val));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testUnsupported() {
+        Variable<String> s = Variable.create(BuiltinTypes.STRING, "__string_0");
+        Valuation val = new Valuation();
+        val.setValue(s, "abc");
+        ExpressionEvaluator.holds(new NumericBooleanExpression(StringIntegerExpression.createLength(s),
+                NumericComparator.EQ, Constant.create(BuiltinTypes.INTEGER, BigInteger.valueOf(3))), val);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.eval;
+
+import gov.nasa.jpf.constraints.api.Expression;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.BitvectorExpression;
+import gov.nasa.jpf.constraints.expressions.BitvectorOperator;
+import gov.nasa.jpf.constraints.expressions.CastExpression;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.IfThenElse;
+import gov.nasa.jpf.constraints.expressions.LogicalOperator;
+import gov.nasa.jpf.constraints.expressions.Negation;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.NumericOperator;
+import gov.nasa.jpf.constraints.expressions.PropositionalCompound;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class ProgramCompilerTest {
+
+    private static final Variable<Integer> X = Variable.create(BuiltinTypes.SINT32, "__int_0");
+
+    private static final Variable<Integer> Y = Variable.create(BuiltinTypes.SINT32, "__int_1");
+
+    private static final Variable<Character> C = Variable.create(BuiltinTypes.UINT16, "__char_0");
+
+    @Test
+    public void testAgreesWithInterpreter() {
+        // (x * 3 + y >> 2) < (char) y  xor  !(ite(x > y, x, y) == (x & y))
+        Expression<Integer> lhs = BitvectorExpression.create(
+                new NumericCompound<>(new NumericCompound<>(X, NumericOperator.MUL, Constant.create(BuiltinTypes.SINT32, 3)),
+                        NumericOperator.PLUS, Y),
+                BitvectorOperator.SHIFTR, Constant.create(BuiltinTypes.SINT32, 2));
+        Expression<Character> charOfY = CastExpression.create(Y, BuiltinTypes.UINT16);
+        Expression<Boolean> less = new NumericBooleanExpression(lhs, NumericComparator.LT,
+                CastExpression.create(charOfY, BuiltinTypes.SINT32));
+        Expression<Integer> max = new IfThenElse<>(new NumericBooleanExpression(X, NumericComparator.GT, Y), X, Y);
+        Expression<Boolean> eq = new NumericBooleanExpression(max, NumericComparator.EQ,
+                BitvectorExpression.create(X, BitvectorOperator.AND, Y));
+        Expression<Boolean> e = new PropositionalCompound(less, LogicalOperator.XOR, new Negation(eq));
+
+        SlotMap slots = new SlotMap();
+        Program p = ProgramCompiler.compile(e, slots);
+        Assert.assertNotNull(p);
+
+        Random r = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            Valuation val = new Valuation();
+            val.setValue(X, i < 10 ? i - 5 : r.nextInt());
+            val.setValue(Y, i < 10 ? 5 - i : r.nextInt());
+            Assert.assertEquals(p.holds(slots.load(val)), ExpressionEvaluator.holds(e, val));
+        }
+    }
+
+    @Test
+    public void testUnsignedChar() {
+        Expression<Boolean> e = new NumericBooleanExpression(C, NumericComparator.GT, Constant.create(BuiltinTypes.UINT16, 'a'));
+        SlotMap slots = new SlotMap();
+        Program p = ProgramCompiler.compile(e, slots);
+        Valuation val = new Valuation();
+        val.setValue(C, (char) 0xFFFF);
+        Assert.assertTrue(p.holds(slots.load(val)));
+    }
+
+    @Test
+    public void testUnsupportedIsNotCompiled() {
+        Variable<Double> d = Variable.create(BuiltinTypes.DOUBLE, "__double_0");
+        Expression<Boolean> e = new NumericBooleanExpression(d, NumericComparator.GT, Constant.create(BuiltinTypes.DOUBLE, 0.0));
+        Assert.assertNull(ProgramCompiler.compile(e, new SlotMap()));
+    }
+}
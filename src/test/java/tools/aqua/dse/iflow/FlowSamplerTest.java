@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tools.aqua.dse.iflow;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import tools.aqua.dse.Config;
+
+import java.util.Properties;
+
+public class FlowSamplerTest {
+
+    private Config config(String key, String value) {
+        Properties props = new Properties();
+        props.setProperty("dse.dp", "z3");
+        props.setProperty("dse.executor", "dummy");
+        props.setProperty("random.seed", "42");
+        props.setProperty(key, value);
+        return Config.fromProperties(props);
+    }
+
+    private FlowEdges flow(int i) {
+        FlowEdges edges = new FlowEdges();
+        edges.addFlow(i, i + 1);
+        return edges;
+    }
+
+    @Test
+    public void testReservoirIsBounded() {
+        Config config = config("iflow.samples", "10");
+        FlowSampler sampler = new FlowSampler(config, new InformationFlowAnalysis(config));
+        for (int i = 0; i < 1000; i++) {
+            assert !sampler.offer(flow(i));
+        }
+        Assert.assertEquals(sampler.getSampled(), 0);
+        sampler.flush();
+        Assert.assertEquals(sampler.getSeen(), 1000);
+        Assert.assertEquals(sampler.getSampled(), 10);
+    }
+
+    @Test
+    public void testFullFractionUsesAllPaths() {
+        Config config = config("iflow.fraction", "1.0");
+        FlowSampler sampler = new FlowSampler(config, new InformationFlowAnalysis(config));
+        for (int i = 0; i < 100; i++) {
+            assert sampler.offer(flow(i));
+        }
+        sampler.flush();
+        Assert.assertEquals(sampler.getSampled(), 100);
+    }
+}
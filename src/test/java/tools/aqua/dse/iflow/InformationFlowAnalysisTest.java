@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tools.aqua.dse.iflow;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import tools.aqua.dse.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+public class InformationFlowAnalysisTest {
+
+    private InformationFlowAnalysis analysis() {
+        return analysis(1);
+    }
+
+    private InformationFlowAnalysis analysis(int threads) {
+        Properties props = new Properties();
+        props.setProperty("dse.dp", "z3");
+        props.setProperty("dse.executor", "dummy");
+        props.setProperty("iflow.threads", "" + threads);
+        return new InformationFlowAnalysis(Config.fromProperties(props));
+    }
+
+    private void add(InformationFlowAnalysis ia, String... flows) {
+        for (String f : flows) {
+            ia.addFlow(f);
+        }
+    }
+
+    @Test
+    public void testTransitiveFlow() {
+        InformationFlowAnalysis ia = analysis();
+        add(ia,
+                "name=b tainted by a",
+                "name=c tainted by b, x",
+                "checkFor=c on value tainted by a",
+                "checkFor=a on value tainted by c",
+                "checkFor=x on value tainted by y");
+        Assert.assertEquals(ia.runChecks(), Collections.singletonList("c"));
+    }
+
+    @Test
+    public void testEvaluateChecksRepeatable() {
+        InformationFlowAnalysis ia = analysis();
+        add(ia,
+                "name=b tainted by a",
+                "checkFor=b on value tainted by a");
+        Assert.assertEquals(ia.runChecks(), Collections.singletonList("b"));
+        Assert.assertEquals(ia.evaluateChecks(), Collections.singletonList("b"));
+        Assert.assertEquals(ia.evaluateChecks(), Collections.singletonList("b"));
+    }
+
+    @Test
+    public void testCheckOnSource() {
+        InformationFlowAnalysis ia = analysis();
+        add(ia,
+                "checkFor=a on value tainted by a",
+                "checkFor=b");
+        Assert.assertEquals(ia.runChecks(), Collections.singletonList("a"));
+    }
+
+    @Test
+    public void testOnlineChecks() {
+        InformationFlowAnalysis ia = analysis();
+        add(ia,
+                "name=b tainted by a",
+                "checkFor=c on value tainted by a");
+        Assert.assertTrue(ia.checkNewViolations().isEmpty());
+
+        ia.addFlow("name=c tainted by b");
+        Assert.assertEquals(ia.checkNewViolations(), Collections.singletonList("c"));
+
+        // reported only once
+        ia.addFlow("name=c tainted by a");
+        Assert.assertTrue(ia.checkNewViolations().isEmpty());
+    }
+
+    @Test
+    public void testViolationsReportedOnce() {
+        InformationFlowAnalysis ia = analysis();
+        add(ia,
+                "name=b tainted by a",
+                "checkFor=b on value tainted by a",
+                "checkFor=c on value tainted by a");
+
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            Assert.assertEquals(ia.checkNewViolations(), Collections.singletonList("b"));
+            ia.addFlow("name=c tainted by b");
+            Assert.assertEquals(ia.runChecks(), Arrays.asList("b", "c"));
+        } finally {
+            System.setOut(stdout);
+        }
+
+        String printed = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertEquals(count(printed, "[TAINT VIOLATION] INFORMATION FLOW/TAINT for b "), 1);
+        Assert.assertEquals(count(printed, "[TAINT VIOLATION] INFORMATION FLOW/TAINT for c "), 1);
+    }
+
+    private static int count(String text, String line) {
+        int n = 0;
+        for (int i = text.indexOf(line); i >= 0; i = text.indexOf(line, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+
+    @Test
+    public void testParallelChecksKeepOrder() {
+        InformationFlowAnalysis ia = analysis(4);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ia.addFlow("name=v" + (i + 1) + " tainted by v" + i);
+            ia.addFlow("checkFor=v" + i + " on value tainted by v" + (i % 2 == 0 ? 0 : 200));
+            if (i % 2 == 0) {
+                expected.add("v" + i);
+            }
+        }
+        Assert.assertEquals(ia.runChecks(), expected);
+    }
+}
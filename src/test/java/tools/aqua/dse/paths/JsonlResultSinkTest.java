@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package tools.aqua.dse.paths;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class JsonlResultSinkTest {
+
+    @Test
+    public void testLines() throws IOException {
+        Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_0");
+        Variable<String> s = Variable.create(BuiltinTypes.STRING, "__string_0");
+        Valuation v1 = new Valuation();
+        v1.setValue(x, 42);
+        Valuation v2 = new Valuation();
+        v2.setValue(s, "a\"b\n");
+
+        StringWriter out = new StringWriter();
+        try (JsonlResultSink sink = new JsonlResultSink(out)) {
+            sink.path(0, Collections.<Integer>emptyList(), "ok", v1, null);
+            sink.path(1, Arrays.asList(1, 0), "error", v2, "java/lang/AssertionError");
+        }
+        Assert.assertEquals(out.toString(),
+                "{\"path\": 0, \"branches\": [], \"leaf\": \"ok\", \"valuation\": {\"__int_0\": 42}, \"error\": null}\n"
+                + "{\"path\": 1, \"branches\": [1, 0], \"leaf\": \"error\", "
+                + "\"valuation\": {\"__string_0\": \"a\\\"b\\n\"}, "
+                + "\"error\": \"java/lang/AssertionError\"}\n");
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package tools.aqua.dse.perf;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void testBuckets() {
+        long prev = -1;
+        for (long v = 0; v < 100000; v++) {
+            int i = Histogram.index(v);
+            Assert.assertTrue(v <= Histogram.upperBound(i));
+            Assert.assertTrue(i == 0 || Histogram.upperBound(i - 1) < v);
+            Assert.assertTrue(Histogram.upperBound(i) >= prev);
+            prev = Histogram.upperBound(i);
+        }
+        // largest values still have a bucket
+        new Histogram().record(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram h = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            h.record(i);
+        }
+        Assert.assertEquals(h.getCount(), 1000L);
+        Assert.assertEquals(h.getMax(), 1000L);
+        Assert.assertEquals(h.getTotal(), 500500L);
+        long p50 = h.percentile(0.5);
+        Assert.assertTrue(p50 >= 500 && p50 <= 500 * 1.125, "p50 = " + p50);
+        long p99 = h.percentile(0.99);
+        Assert.assertTrue(p99 >= 990 && p99 <= 1000, "p99 = " + p99);
+        Assert.assertEquals(new Histogram().percentile(0.5), 0L);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tools.aqua.dse.spill;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class MappedRecordLogTest {
+
+    @Test
+    public void testValuationsSpanningSegments() {
+        MappedRecordLog<Valuation> log = new MappedRecordLog<>(new ValuationCodec(), null, 64);
+        Variable<String> s = Variable.create(BuiltinTypes.STRING, "__string_0");
+        for (int i = 0; i < 100; i++) {
+            Valuation val = new Valuation();
+            val.setValue(s, "a longer string value no. " + i);
+            log.append(val);
+        }
+        Assert.assertEquals(log.size(), 100);
+
+        int i = 0;
+        for (Valuation val : log) {
+            Assert.assertEquals(val.getValue(s), "a longer string value no. " + i);
+            i++;
+        }
+        Assert.assertEquals(i, 100);
+        log.close();
+    }
+
+    @Test
+    public void testValuations() {
+        MappedRecordLog<Valuation> log = new MappedRecordLog<>(new ValuationCodec(), null);
+        Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_0");
+        Variable<String> s = Variable.create(BuiltinTypes.STRING, "__string_0");
+        Variable<Double> d = Variable.create(BuiltinTypes.DOUBLE, "__double_0");
+
+        List<Valuation> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Valuation val = new Valuation();
+            val.setValue(x, i);
+            val.setValue(s, "value " + i);
+            val.setValue(d, i / 2.0);
+            expected.add(val);
+            log.append(val);
+        }
+
+        Iterator<Valuation> it = log.iterator();
+        for (Valuation val : expected) {
+            Valuation read = it.next();
+            Assert.assertEquals(read.getValue(x), val.getValue(x));
+            Assert.assertEquals(read.getValue(s), val.getValue(s));
+            Assert.assertEquals(read.getValue(d), val.getValue(d));
+        }
+        Assert.assertFalse(it.hasNext());
+        log.close();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.synthetic;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Properties;
+
+public class SyntheticProgramTest {
+
+    private static SyntheticProgram program(String... settings) {
+        Properties props = new Properties();
+        for (int i = 0; i < settings.length; i += 2) {
+            props.setProperty(settings[i], settings[i + 1]);
+        }
+        return new SyntheticProgram(props);
+    }
+
+    @Test
+    public void testBranchesMatchConditions() {
+        SyntheticProgram p = program("synthetic.depth", "6", "synthetic.fanout", "4", "synthetic.seed", "7");
+        int[] inputs = {-900, -10, 0, 10, 500, 999};
+        SyntheticProgram.Execution e = p.execute(inputs);
+        Assert.assertFalse(e.crashed);
+        Assert.assertEquals(e.steps.size(), 6);
+        for (SyntheticProgram.Step s : e.steps) {
+            int x = inputs[s.level];
+            Assert.assertTrue(s.lower == null || s.lower <= x);
+            Assert.assertTrue(s.upper == null || x < s.upper);
+            Assert.assertEquals(s.lower == null, s.branch == 0);
+            Assert.assertEquals(s.upper == null, s.branch == 3);
+        }
+    }
+
+    @Test
+    public void testDeterministic() {
+        SyntheticProgram p1 = program("synthetic.depth", "20", "synthetic.divergence", "0.5", "synthetic.crash", "0.5");
+        SyntheticProgram p2 = program("synthetic.depth", "20", "synthetic.divergence", "0.5", "synthetic.crash", "0.5");
+        for (int i = 0; i < 50; i++) {
+            int[] inputs = {i, -i, i * 31};
+            SyntheticProgram.Execution e1 = p1.execute(inputs);
+            SyntheticProgram.Execution e2 = p2.execute(inputs);
+            Assert.assertEquals(e1.crashed, e2.crashed);
+            Assert.assertEquals(e1.steps.size(), e2.steps.size());
+            for (int j = 0; j < e1.steps.size(); j++) {
+                Assert.assertEquals(e1.steps.get(j).branch, e2.steps.get(j).branch);
+            }
+        }
+    }
+
+    @Test
+    public void testCrash() {
+        SyntheticProgram p = program("synthetic.crash", "1");
+        Assert.assertTrue(p.execute(new int[0]).crashed);
+    }
+}
@@ -0,0 +1,81 @@
+package tools.aqua.dse.testgeneration;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import tools.aqua.dse.Config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public class StreamingTestGeneratorTest {
+
+    private Config config() {
+        Properties props = new Properties();
+        props.setProperty("dse.dp", "z3");
+        props.setProperty("dse.executor", "java");
+        props.setProperty("dse.executor.args", "-cp target/classes Example");
+        return Config.fromProperties(props);
+    }
+
+    private List<Valuation> valuations() {
+        Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_0");
+        Variable<Integer> y = Variable.create(BuiltinTypes.SINT32, "__int_1");
+        Variable<String> s = Variable.create(BuiltinTypes.STRING, "__string_0");
+        Variable<Double> d = Variable.create(BuiltinTypes.DOUBLE, "__double_0");
+
+        List<Valuation> vals = new ArrayList<>();
+        vals.add(new Valuation());
+        Valuation v1 = new Valuation();
+        v1.setValue(x, 41);
+        v1.setValue(y, -1);
+        vals.add(v1);
+        Valuation v2 = new Valuation();
+        v2.setValue(s, "a \"quoted\"\n string");
+        v2.setValue(d, Double.NaN);
+        vals.add(v2);
+        return vals;
+    }
+
+    private CompilationUnit parse(Path file) throws IOException {
+        return StaticJavaParser.parse(file);
+    }
+
+    @Test
+    public void testStreamedClassParses() throws IOException {
+        Path root = Files.createTempDirectory("dse-tests");
+        String oldRoot = System.getProperty("project.root");
+        System.setProperty("project.root", root.toString());
+        try {
+            Path file = root.resolve("coverage-report/src/test/java/ExampleTest.java");
+            TestGeneratorImpl generator = new TestGeneratorImpl(config());
+            generator.beginTestClass();
+            Assert.assertTrue(parse(file).findAll(MethodDeclaration.class).isEmpty());
+
+            int tests = 0;
+            for (Valuation val : valuations()) {
+                generator.addTest(val);
+                tests++;
+                Assert.assertEquals(parse(file).findAll(MethodDeclaration.class).size(), tests);
+            }
+
+            generator.finishTestClass();
+            Assert.assertEquals(parse(file).findAll(MethodDeclaration.class).size(), tests);
+        } finally {
+            if (oldRoot == null) {
+                System.clearProperty("project.root");
+            } else {
+                System.setProperty("project.root", oldRoot);
+            }
+        }
+    }
+}
@@ -15,11 +15,26 @@
 
 package tools.aqua.dse.trace;
 
+import gov.nasa.jpf.constraints.api.Expression;
 import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.Negation;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.expressions.NumericCompound;
+import gov.nasa.jpf.constraints.expressions.NumericOperator;
 import gov.nasa.jpf.constraints.smtlibUtility.parser.SMTLIBParserException;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
 import org.testng.annotations.Test;
+import tools.aqua.dse.iflow.FlowDictionary;
+import tools.aqua.dse.paths.PathResult;
+import tools.aqua.dse.perf.Phase;
+import tools.aqua.dse.perf.PerfStats;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -53,4 +68,49 @@ public class TraceParserTest {
         assert d != null;
         System.out.println(d);
     }
+
+    @Test
+    public void testBranchParser() {
+        Decision d = TraceParser.parseBranch(" branchCount=3, branchId=2");
+        Assert.assertNull(d.getCondition());
+        Assert.assertEquals(d.getBranches(), 3);
+        Assert.assertEquals(d.getBranchId(), 2);
+    }
+
+    @Test
+    public void testBinaryTrace() throws IOException {
+        Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_0");
+        Expression<Integer> sum = new NumericCompound<>(x, NumericOperator.PLUS, Constant.create(BuiltinTypes.SINT32, 11));
+        Expression<Boolean> cond = new NumericBooleanExpression(Constant.create(BuiltinTypes.SINT32, 50), NumericComparator.LE, sum);
+
+        BinaryTraceWriter writer = new BinaryTraceWriter();
+        writer.decision(cond, 2, 1);
+        writer.decision(new Negation(new NumericBooleanExpression(sum, NumericComparator.EQ, x)), 2, 0);
+        writer.error("java.lang.ArrayIndexOutOfBoundsException");
+        byte[] data = writer.finish();
+
+        Trace t = TraceParser.parseTrace(data, new Valuation(), new FlowDictionary());
+        Assert.assertNotNull(t);
+        Assert.assertEquals(t.getDecisions().size(), 2);
+        Assert.assertEquals(t.getDecisions().get(0).getCondition(), cond);
+        Assert.assertEquals(t.getDecisions().get(0).getBranchId(), 1);
+        Assert.assertEquals(t.getDecisions().get(1).getCondition(),
+                new Negation(new NumericBooleanExpression(sum, NumericComparator.EQ, x)));
+        Assert.assertEquals(((PathResult.ErrorResult) t.getTraceState()).getExceptionClass(),
+                "java.lang.ArrayIndexOutOfBoundsException");
+
+        // not terminated
+        Assert.assertNull(TraceParser.parseTrace(Arrays.copyOf(data, data.length - 1), new Valuation(), new FlowDictionary()));
+    }
+
+    @Test
+    public void testBinaryTraceParseTimed() throws IOException {
+        BinaryTraceWriter writer = new BinaryTraceWriter();
+        writer.branch(2, 0);
+        byte[] data = writer.finish();
+
+        PerfStats.reset();
+        TraceParser.parseTrace(data, new Valuation(), new FlowDictionary());
+        Assert.assertEquals(PerfStats.get(Phase.PARSE).getCount(), 1);
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2021, Automated Quality Assurance Group,
+ * TU Dortmund University, Germany. All rights reserved.
+ *
+ * DSE (dynamic symbolic execution) is licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package tools.aqua.dse.tree;
+
+import gov.nasa.jpf.constraints.api.Valuation;
+import gov.nasa.jpf.constraints.api.Variable;
+import gov.nasa.jpf.constraints.expressions.Constant;
+import gov.nasa.jpf.constraints.expressions.NumericBooleanExpression;
+import gov.nasa.jpf.constraints.expressions.NumericComparator;
+import gov.nasa.jpf.constraints.types.BuiltinTypes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class ValuationMutatorTest {
+
+    @Test
+    public void testUsesConstantsFromConditions() {
+        Variable<Integer> x = Variable.create(BuiltinTypes.SINT32, "__int_0");
+        ValuationMutator mutator = new ValuationMutator(new Random(42));
+        mutator.learn(new NumericBooleanExpression(x, NumericComparator.EQ, Constant.create(BuiltinTypes.SINT32, 1234)));
+
+        Valuation base = new Valuation();
+        base.setValue(x, 0);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            Valuation mutated = mutator.mutate(base);
+            seen.add(mutated.getValue(x));
+        }
+        Assert.assertTrue(seen.contains(1233));
+        Assert.assertTrue(seen.contains(1234));
+        Assert.assertTrue(seen.contains(1235));
+        Assert.assertTrue(seen.contains(Integer.MAX_VALUE));
+        Assert.assertEquals((int) base.getValue(x), 0);
+    }
+
+    @Test
+    public void testKeepsTypes() {
+        ValuationMutator mutator = new ValuationMutator(new Random(42));
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(mutator.mutate((byte) 3) instanceof Byte);
+            Assert.assertTrue(mutator.mutate('c') instanceof Character);
+            Assert.assertTrue(mutator.mutate(3.0f) instanceof Float);
+            Assert.assertTrue(mutator.mutate("abc") instanceof String);
+        }
+        Assert.assertEquals(mutator.mutate(true), false);
+    }
+}